@@ -1,5 +1,6 @@
 package de.dhbw.rahmlab.casadi.api.core.constraints;
 
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionCache;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
@@ -23,6 +24,9 @@ public abstract class AbstractConstraint implements Constraint {
     /** The comparison operator used to evaluate the constraint. */
     protected final Comparison cmp;
 
+    /** Expression reused by feasibility checks, so that their function is found in the {@link FunctionCache}. */
+    private MXWrapper feasibilityExpression;
+
     /**
      * Constructs an AbstractConstraint with specified LHS, comparison operator, and RHS.
      *
@@ -55,11 +59,14 @@ public abstract class AbstractConstraint implements Constraint {
      */
     @Override
     public boolean isFeasible(MapStringToDouble assignment, double tol) {
-        MXVector vars = getExpression().symvar();
-        FunctionWrapper fw = new FunctionWrapper(
+        if (feasibilityExpression == null) {
+            feasibilityExpression = getExpression();
+        }
+        MXVector vars = feasibilityExpression.symvar();
+        FunctionWrapper fw = FunctionCache.forCurrentThread().get(
                 "feasCheck",
                 vars,
-                new MXVector(getExpression())
+                new MXVector(feasibilityExpression)
         );
         MapStringToDMWrapper res = fw.call(assignment.getWrapper());
         MapStringToDouble res1 = new MapStringToDouble(res);
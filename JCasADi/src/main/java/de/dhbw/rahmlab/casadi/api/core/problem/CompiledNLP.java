@@ -0,0 +1,326 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.MapStringToDMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionStore;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Solver of an NLPProblem which is prepared once and then solved repeatedly for changing parameter values.
+ * The baked nlpsol function of the problem is called directly with primitive arrays. Thus, the bookkeeping of
+ * the problem (dirty flags, value maps) is skipped on every solve. Intended for receding horizon control.
+ *
+ * The decision variables and parameters are ordered as returned by {@link NLPProblem#getDecisionVariables()} and
+ * {@link NLPProblem#getParameters()}. The constraints are ordered as returned by {@link NLPProblem#getConstraints()}.
+ *
+ * The constraint bounds are evaluated once at construction. If they depend on parameters, set them explicitly
+ * with {@link #setConstraintBounds(double[], double[])}. Later changes of the problem are not reflected.
+ *
+ * Not thread-safe.
+ */
+public class CompiledNLP {
+
+    /**
+     * Solution of a single solve.
+     *
+     * @param x            the values of the decision variables
+     * @param f            the value of the objective
+     * @param g            the values of the constraints
+     * @param lamX         the multipliers of the simple bounds of the decision variables
+     * @param lamG         the multipliers of the constraints
+     * @param success      whether the solver reported success
+     * @param returnStatus the return status of the solver
+     */
+    public record Result(double[] x, double f, double[] g, double[] lamX, double[] lamG, boolean success, String returnStatus) {
+
+    }
+
+    private final FunctionWrapper solver;
+
+    private final int numberOfVariables;
+    private final int numberOfParameters;
+    private final int numberOfConstraints;
+
+    // Inputs of nlpsol in the order of the function.
+    private final double[][] bakedInputs;
+    private final DMWrapper[] inputs;
+    private final DMWrapper x0;
+    private final DMWrapper p;
+    private final DMWrapper lbg;
+    private final DMWrapper ubg;
+    private final DMWrapper lamX0;
+    private final DMWrapper lamG0;
+
+    private final int outX;
+    private final int outF;
+    private final int outG;
+    private final int outLamX;
+    private final int outLamG;
+
+    private Result lastResult;
+
+    /**
+     * The nlpsol function and the nonzeros of its inputs taken from the baked problem.
+     */
+    record Baked(FunctionWrapper solver, double[][] inputs) {
+
+    }
+
+    /**
+     * Prepares the problem for solving and bakes its solver, the initial values and the constraint bounds.
+     * The solver must be set already.
+     *
+     * @param problem the problem to compile
+     */
+    public CompiledNLP(NLPProblem problem) {
+        this(bake(problem));
+    }
+
+    /**
+     * Constructs a solver from an already baked problem, e.g. deserialized on another thread.
+     *
+     * @param baked the nlpsol function and the nonzeros of its inputs
+     */
+    CompiledNLP(Baked baked) {
+        this.solver = baked.solver();
+        this.bakedInputs = baked.inputs();
+        this.inputs = new DMWrapper[this.bakedInputs.length];
+        for (int i = 0; i < this.inputs.length; ++i) {
+            this.inputs[i] = DMWrapper.fromArray(this.bakedInputs[i], 0, this.bakedInputs[i].length);
+        }
+        this.x0 = input("x0");
+        this.p = input("p");
+        this.lbg = input("lbg");
+        this.ubg = input("ubg");
+        this.lamX0 = input("lam_x0");
+        this.lamG0 = input("lam_g0");
+
+        this.numberOfVariables = (int) this.x0.nnz();
+        this.numberOfParameters = (int) this.p.nnz();
+        this.numberOfConstraints = (int) this.lbg.nnz();
+
+        this.outX = (int) this.solver.getIndexOut("x");
+        this.outF = (int) this.solver.getIndexOut("f");
+        this.outG = (int) this.solver.getIndexOut("g");
+        this.outLamX = (int) this.solver.getIndexOut("lam_x");
+        this.outLamG = (int) this.solver.getIndexOut("lam_g");
+    }
+
+    /**
+     * Bakes a problem whose solver is serialized, e.g. to transfer it to other threads or to store it.
+     *
+     * @throws IllegalStateException if an IterationListener is registered on the problem
+     */
+    static Baked bakeSerializable(NLPProblem problem) {
+        // Detaches a callback which was only attached for solve(Duration) or solveAsync.
+        if (problem.hasIterationCallback()) {
+            // The nlpsol function would reference the Java callback, which cannot be serialized.
+            throw new IllegalStateException("The solver of a problem with an IterationListener cannot be serialized. "
+                    + "Remove the listener with onIteration(null) before.");
+        }
+        return bake(problem);
+    }
+
+    static Baked bake(NLPProblem problem) {
+        NLPAdvancedModel model = new NLPAdvancedModel(problem);
+        model.prepareForSolving();
+        FunctionWrapper solver = model.getCasADiSolver();
+        MapStringToDMWrapper arg = model.arg();
+
+        double[][] inputs = new double[(int) solver.getNumberOfInputs()][];
+        for (int i = 0; i < inputs.length; ++i) {
+            String name = solver.getInputSchemeNameByIndex(i);
+            if (arg.containsKey(name)) {
+                inputs[i] = arg.get(name).toArray();
+            } else {
+                inputs[i] = new double[(int) solver.getNumberOfInputNNZ(i)];
+                Arrays.fill(inputs[i], solver.getDefaultInputValue(i));
+            }
+        }
+        return new Baked(solver, inputs);
+    }
+
+    /**
+     * Loads the baked solver and its inputs from a store. If they are not stored yet, the problem is built, baked
+     * and stored. Thus, the problem is only built on the first start.
+     *
+     * @param store   the store of the baked solvers
+     * @param key     describes all inputs of building the problem
+     * @param problem builds the problem. The solver must be set already.
+     * @return the solver of the problem
+     */
+    public static CompiledNLP fromStore(FunctionStore store, String key, Supplier<NLPProblem> problem) {
+        String solverKey = FunctionStore.key(key, "solver");
+        String inputsKey = FunctionStore.key(key, "inputs");
+        Optional<FunctionWrapper> solver = store.load(solverKey);
+        Optional<FunctionWrapper> inputs = store.load(inputsKey);
+        if (solver.isPresent() && inputs.isPresent()) {
+            DMVector values = inputs.get().call(new DMVector());
+            double[][] bakedInputs = new double[values.size()][];
+            for (int i = 0; i < bakedInputs.length; ++i) {
+                bakedInputs[i] = values.get(i).toArray();
+            }
+            return new CompiledNLP(new Baked(solver.get(), bakedInputs));
+        }
+
+        Baked baked = bakeSerializable(problem.get());
+        // The inputs are stored as a function without inputs returning them as constants.
+        MXVector constants = new MXVector();
+        for (double[] input : baked.inputs()) {
+            constants.add(new MXWrapper(input));
+        }
+        store.store(solverKey, baked.solver());
+        store.store(inputsKey, new FunctionWrapper("baked_inputs", new MXVector(), constants));
+        return new CompiledNLP(baked);
+    }
+
+    private DMWrapper input(String name) {
+        return this.inputs[(int) this.solver.getIndexIn(name)];
+    }
+
+    /**
+     * Restores the initial guess of the baked problem. Otherwise, the previous solution is used.
+     */
+    public void reset() {
+        resetInput("x0");
+        resetInput("lam_x0");
+        resetInput("lam_g0");
+    }
+
+    private void resetInput(String name) {
+        int ind = (int) this.solver.getIndexIn(name);
+        this.inputs[ind].setNonzeros(this.bakedInputs[ind], 0);
+    }
+
+    /**
+     * Solves the problem for the given parameter values.
+     * The previous solution is used as the primal and dual initial guess. For the first solve, the initial values
+     * of the problem are used.
+     *
+     * @param params the values of the parameters
+     * @return the solution
+     */
+    public Result resolve(double[] params) {
+        return resolve(params, null, null);
+    }
+
+    /**
+     * Solves the problem for the given parameter values and initial guess.
+     *
+     * @param params the values of the parameters
+     * @param x0     the initial guess of the decision variables or null to use the previous solution
+     * @param lamG0  the initial guess of the constraint multipliers or null to use the previous solution
+     * @return the solution
+     * @throws IllegalArgumentException if the length of an array does not match the problem
+     */
+    public Result resolve(double[] params, double[] x0, double[] lamG0) {
+        checkLength(params, this.numberOfParameters, "parameters");
+        this.p.setNonzeros(params, 0);
+        if (x0 != null) {
+            checkLength(x0, this.numberOfVariables, "initial decision variables");
+            this.x0.setNonzeros(x0, 0);
+        }
+        if (lamG0 != null) {
+            checkLength(lamG0, this.numberOfConstraints, "initial constraint multipliers");
+            this.lamG0.setNonzeros(lamG0, 0);
+        }
+
+        DMVector res = this.solver.call(new DMVector(this.inputs));
+        DMWrapper x = res.get(this.outX);
+        DMWrapper lamX = res.get(this.outLamX);
+        DMWrapper lamG = res.get(this.outLamG);
+        Dictionary stats = this.solver.getStatistics();
+
+        Result result = new Result(
+                x.toArray(),
+                res.get(this.outF).scalar(),
+                res.get(this.outG).toArray(),
+                lamX.toArray(),
+                lamG.toArray(),
+                stats.get("success").convertToBoolean(),
+                stats.get("return_status").convertToString());
+
+        // Warm start of the next solve.
+        this.x0.setNonzeros(result.x(), 0);
+        this.lamX0.setNonzeros(result.lamX(), 0);
+        this.lamG0.setNonzeros(result.lamG(), 0);
+        this.lastResult = result;
+        return result;
+    }
+
+    private static void checkLength(double[] values, int expected, String kind) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " " + kind + ", but got " + values.length + ".");
+        }
+    }
+
+    /**
+     * Overwrites the lower and upper bounds of the constraints.
+     *
+     * @param lbg the lower bounds
+     * @param ubg the upper bounds
+     * @throws IllegalArgumentException if the length of an array does not match the number of constraints
+     */
+    public void setConstraintBounds(double[] lbg, double[] ubg) {
+        checkLength(lbg, this.numberOfConstraints, "lower bounds");
+        checkLength(ubg, this.numberOfConstraints, "upper bounds");
+        this.lbg.setNonzeros(lbg, 0);
+        this.ubg.setNonzeros(ubg, 0);
+    }
+
+    /**
+     * Retrieves the solution of the latest solve.
+     *
+     * @return the latest solution or null if not solved yet
+     */
+    public Result getLastResult() {
+        return this.lastResult;
+    }
+
+    /**
+     * Retrieves the statistics of the latest solve.
+     *
+     * @return a Dictionary representing the statistics
+     */
+    public Dictionary getStatistics() {
+        return this.solver.getStatistics();
+    }
+
+    /**
+     * Retrieves the typed statistics of the latest solve.
+     *
+     * @return an NLPSolveStats representing the statistics
+     */
+    public NLPSolveStats getSolveStats() {
+        return NLPSolveStats.of(this.solver.getCasADiObject().stats());
+    }
+
+    public int getNumberOfDecisionVariables() {
+        return this.numberOfVariables;
+    }
+
+    public int getNumberOfParameters() {
+        return this.numberOfParameters;
+    }
+
+    public int getNumberOfConstraints() {
+        return this.numberOfConstraints;
+    }
+
+    /**
+     * Retrieves the baked nlpsol function.
+     *
+     * @return the FunctionWrapper containing the solver
+     */
+    public FunctionWrapper getSolver() {
+        return this.solver;
+    }
+}
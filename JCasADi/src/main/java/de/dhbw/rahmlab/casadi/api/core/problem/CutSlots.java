@@ -0,0 +1,115 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Values of the slots of a {@link LinearCutBlock}, kept in Java.
+ * The upper bound of a slot is its right hand side if the cut is active and +inf otherwise.
+ * Unused slots have zero coefficients and are inactive.
+ */
+final class CutSlots {
+
+    private final int capacity;
+    private final int numberOfVariables;
+
+    // Column-major, capacity x numberOfVariables.
+    private final double[] coefficients;
+    private final double[] rightHandSides;
+    private final double[] upperBounds;
+    private final boolean[] active;
+    private int size;
+
+    CutSlots(int capacity, int numberOfVariables) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.numberOfVariables = numberOfVariables;
+        this.coefficients = new double[capacity * numberOfVariables];
+        this.rightHandSides = new double[capacity];
+        this.upperBounds = new double[capacity];
+        this.active = new boolean[capacity];
+        Arrays.fill(this.upperBounds, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param count the number of cuts to add
+     * @throws IllegalStateException if there are not enough unused slots
+     */
+    void checkFits(int count) {
+        if (this.size + count > this.capacity) {
+            throw new IllegalStateException("Only " + remaining() + " of " + count + " cuts fit into the block.");
+        }
+    }
+
+    /**
+     * Stores an active cut in the next unused slot.
+     *
+     * @return the slot of the cut
+     */
+    int put(double[] a, double b) {
+        if (a.length != this.numberOfVariables) {
+            throw new IllegalArgumentException("Expected " + this.numberOfVariables + " coefficients, but got " + a.length + ".");
+        }
+        if (this.size == this.capacity) {
+            throw new IllegalStateException("All " + this.capacity + " cuts of the block are used.");
+        }
+        int slot = this.size++;
+        for (int j = 0; j < this.numberOfVariables; ++j) {
+            this.coefficients[j * this.capacity + slot] = a[j];
+        }
+        this.rightHandSides[slot] = b;
+        setActive(slot, true);
+        return slot;
+    }
+
+    void setActive(int slot, boolean active) {
+        Objects.checkIndex(slot, this.size);
+        this.active[slot] = active;
+        this.upperBounds[slot] = active ? this.rightHandSides[slot] : Double.POSITIVE_INFINITY;
+    }
+
+    boolean isActive(int slot) {
+        Objects.checkIndex(slot, this.size);
+        return this.active[slot];
+    }
+
+    void clear() {
+        Arrays.fill(this.coefficients, 0.0);
+        Arrays.fill(this.rightHandSides, 0.0);
+        Arrays.fill(this.upperBounds, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.active, false);
+        this.size = 0;
+    }
+
+    /**
+     * @return the coefficients of all slots, column-major. Not a copy.
+     */
+    double[] coefficients() {
+        return this.coefficients;
+    }
+
+    /**
+     * @return the upper bounds of all slots. Not a copy.
+     */
+    double[] upperBounds() {
+        return this.upperBounds;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int remaining() {
+        return this.capacity - this.size;
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    int numberOfVariables() {
+        return this.numberOfVariables;
+    }
+}
@@ -0,0 +1,151 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.generictype.CasADiGenericWrapper;
+import de.dhbw.rahmlab.casadi.impl.casadi.Opti;
+import de.dhbw.rahmlab.casadi.impl.core__;
+import de.dhbw.rahmlab.casadi.impl.jcasadi.IterationHandler;
+import de.dhbw.rahmlab.casadi.impl.jcasadi.IterationStop;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Called by the solver of an NLPProblem in every iteration. Passes the progress to an optional IterationListener
+ * and stops the solve if requested by the listener, by another thread or by the time budget.
+ * The progress is read natively from the statistics of the solver into a reused array.
+ *
+ * Installed as the option "iteration_callback" of the solver. A stop is returned to the solver, which then returns
+ * regularly and is recognized by {@link #getStopReason()}. Exceptions of the listener are errors. They abort the solve
+ * and are rethrown by {@link #rethrowListenerException()}.
+ */
+final class IterationCallback {
+
+    enum StopReason {
+        NONE,
+        LISTENER,
+        REQUEST,
+        BUDGET
+    }
+
+    /**
+     * Dispatches the calls of the solver to {@link #proceed()}.
+     */
+    private static final class Director extends IterationHandler {
+
+        private final IterationCallback owner;
+
+        private Director(IterationCallback owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public boolean proceed() {
+            return this.owner.proceed();
+        }
+    }
+
+    private final Opti opti;
+    private final double[] latest = new double[3];
+    private final Director director;
+    /**
+     * Holds a raw pointer to the director. Both are kept alive by this object.
+     */
+    private final IterationStop iterationStop;
+    private IterationListener listener;
+
+    private long iteration;
+    private long startNanos;
+    private long budgetNanos;
+    private IterationInfo lastIteration;
+    private StopReason stopReason;
+    private RuntimeException listenerException;
+    private BooleanSupplier stopRequested;
+
+    IterationCallback(Opti opti) {
+        this.opti = opti;
+        this.director = new Director(this);
+        this.iterationStop = new IterationStop(this.director);
+        this.start(Long.MAX_VALUE, () -> false);
+    }
+
+    void setListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    boolean hasListener() {
+        return this.listener != null;
+    }
+
+    /**
+     * @return the value of the solver option "iteration_callback".
+     */
+    CasADiGenericWrapper asSolverOption() {
+        return new CasADiGenericWrapper(new FunctionWrapper(this.iterationStop));
+    }
+
+    /**
+     * Called before every solve.
+     *
+     * @param budgetNanos   the maximum wall-clock time of the solve, Long.MAX_VALUE for no limit.
+     * @param stopRequested polled in every iteration, may be set by other threads.
+     */
+    void start(long budgetNanos, BooleanSupplier stopRequested) {
+        this.iteration = 0;
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetNanos;
+        this.stopRequested = stopRequested;
+        this.lastIteration = null;
+        this.stopReason = StopReason.NONE;
+        this.listenerException = null;
+    }
+
+    /**
+     * @return false to stop the solve.
+     */
+    private boolean proceed() {
+        long elapsedNanos = System.nanoTime() - this.startNanos;
+        long current = this.iteration++;
+        if (this.listener != null) {
+            core__.latest_iteration(this.opti, this.latest);
+            this.lastIteration = new IterationInfo(current, this.latest[0], this.latest[1], this.latest[2], elapsedNanos);
+            boolean proceed;
+            try {
+                proceed = this.listener.onIteration(this.lastIteration);
+            } catch (RuntimeException ex) {
+                this.listenerException = ex;
+                throw ex;
+            }
+            if (!proceed) {
+                return stop(StopReason.LISTENER);
+            }
+        } else {
+            this.lastIteration = new IterationInfo(current, Double.NaN, Double.NaN, Double.NaN, elapsedNanos);
+        }
+        if (this.stopRequested.getAsBoolean()) {
+            return stop(StopReason.REQUEST);
+        }
+        if (elapsedNanos >= this.budgetNanos) {
+            return stop(StopReason.BUDGET);
+        }
+        return true;
+    }
+
+    private boolean stop(StopReason reason) {
+        this.stopReason = reason;
+        return false;
+    }
+
+    StopReason getStopReason() {
+        return this.stopReason;
+    }
+
+    IterationInfo getLastIteration() {
+        return this.lastIteration;
+    }
+
+    void rethrowListenerException() {
+        if (this.listenerException != null) {
+            throw this.listenerException;
+        }
+    }
+}
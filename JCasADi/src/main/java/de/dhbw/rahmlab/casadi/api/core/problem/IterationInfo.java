@@ -0,0 +1,25 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import java.time.Duration;
+
+/**
+ * Progress of the solver of an NLPProblem after a single iteration.
+ * Values not reported by the solver plugin are NaN.
+ *
+ * @param iteration             the number of the iteration, starting at 0
+ * @param objective             the value of the objective
+ * @param primalInfeasibility   the primal infeasibility (constraint violation)
+ * @param dualInfeasibility     the dual infeasibility
+ * @param elapsedNanos          the wall-clock time since the start of the solve in nanoseconds
+ */
+public record IterationInfo(long iteration, double objective, double primalInfeasibility, double dualInfeasibility, long elapsedNanos) {
+
+    /**
+     * Retrieves the wall-clock time since the start of the solve.
+     *
+     * @return the elapsed time
+     */
+    public Duration elapsed() {
+        return Duration.ofNanos(this.elapsedNanos);
+    }
+}
@@ -0,0 +1,19 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+/**
+ * Receives the progress of the solver of an NLPProblem in every iteration.
+ * Called on the thread which solves the problem.
+ *
+ * @see NLPProblem#onIteration(IterationListener)
+ */
+@FunctionalInterface
+public interface IterationListener {
+
+    /**
+     * Called after every iteration of the solver.
+     *
+     * @param info the progress of the solver
+     * @return true to continue, false to stop the solve
+     */
+    boolean onIteration(IterationInfo info);
+}
@@ -0,0 +1,174 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+
+/**
+ * Preallocated block of linear constraints a^T x &lt;= b which are added to an NLPProblem without re-baking it.
+ * Created by {@link NLPProblem#addCutBlock(MXWrapper, int)}.
+ *
+ * The block is a single constraint A x &lt;= ub whose coefficients A and upper bounds ub are parameters of the problem.
+ * Opti passes the parametric upper bounds to the solver as ubg. Adding, activating or deactivating a cut only changes
+ * parameter values. Thus, the nlpsol function of the problem is reused by the next {@link NLPProblem#solve()}.
+ * The upper bound of an active cut is its right hand side b. Inactive cuts and unused slots have an upper bound of
+ * +inf, which the solver treats as no constraint. Unused slots have zero coefficients.
+ *
+ * The values are kept in Java and transferred to the problem as a whole on every change. To add many cuts at
+ * once, use {@link #addCuts(double[][], double[])}.
+ *
+ * Not thread-safe.
+ */
+public class LinearCutBlock {
+
+    private final NLPProblem problem;
+    private final CutSlots slots;
+
+    private final MXWrapper coefficients;
+    private final MXWrapper upperBounds;
+    private final MXWrapper constraint;
+
+    /**
+     * Adds the parameters and the constraint of the block to the problem. All slots are unused.
+     *
+     * @param problem  the problem to add the block to
+     * @param x        the decision variables the cuts are linear in, stacked column-major
+     * @param capacity the maximum number of cuts
+     */
+    LinearCutBlock(NLPProblem problem, MXWrapper x, int capacity) {
+        this.slots = new CutSlots(capacity, (int) x.numel());
+        this.problem = problem;
+        int numberOfVariables = this.slots.numberOfVariables();
+
+        this.coefficients = problem.addParameter(capacity, numberOfVariables);
+        this.upperBounds = problem.addParameter(capacity);
+        this.constraint = this.coefficients.mtimes(x.reshape(numberOfVariables, 1)).le(this.upperBounds);
+        problem.addConstraints(this.constraint);
+
+        syncCoefficients();
+        syncUpperBounds();
+    }
+
+    /**
+     * Adds an active cut a^T x &lt;= b in the next unused slot.
+     *
+     * @param a the coefficients of the cut
+     * @param b the right hand side of the cut
+     * @return the slot of the cut
+     * @throws IllegalArgumentException if the length of a does not match the number of variables
+     * @throws IllegalStateException    if all slots are used
+     */
+    public int addCut(double[] a, double b) {
+        int slot = this.slots.put(a, b);
+        syncCoefficients();
+        syncUpperBounds();
+        return slot;
+    }
+
+    /**
+     * Adds active cuts A x &lt;= b in the next unused slots. Transfers the values to the problem only once.
+     *
+     * @param a the coefficients of the cuts, one row per cut
+     * @param b the right hand sides of the cuts
+     * @return the slot of the first cut
+     * @throws IllegalArgumentException if the dimensions do not match
+     * @throws IllegalStateException    if there are not enough unused slots
+     */
+    public int addCuts(double[][] a, double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Expected " + a.length + " right hand sides, but got " + b.length + ".");
+        }
+        this.slots.checkFits(a.length);
+        int first = this.slots.size();
+        for (int i = 0; i < a.length; ++i) {
+            this.slots.put(a[i], b[i]);
+        }
+        syncCoefficients();
+        syncUpperBounds();
+        return first;
+    }
+
+    /**
+     * Activates or deactivates a cut. A deactivated cut keeps its coefficients and its right hand side.
+     *
+     * @param slot   the slot of the cut
+     * @param active whether the cut is enforced by the next solve
+     */
+    public void setActive(int slot, boolean active) {
+        this.slots.setActive(slot, active);
+        syncUpperBounds();
+    }
+
+    /**
+     * Checks whether a cut is enforced by the next solve.
+     *
+     * @param slot the slot of the cut
+     * @return true if the cut is active
+     */
+    public boolean isActive(int slot) {
+        return this.slots.isActive(slot);
+    }
+
+    /**
+     * Removes all cuts. All slots are unused afterwards.
+     */
+    public void clear() {
+        this.slots.clear();
+        syncCoefficients();
+        syncUpperBounds();
+    }
+
+    private void syncCoefficients() {
+        double[] values = this.slots.coefficients();
+        this.problem.setParameterValue(this.coefficients,
+                DMWrapper.fromArray(values, 0, values.length).reshape(this.slots.capacity(), this.slots.numberOfVariables()));
+    }
+
+    private void syncUpperBounds() {
+        this.problem.setParameterValue(this.upperBounds, DMWrapper.fromArray(this.slots.upperBounds(), 0, this.slots.capacity()));
+    }
+
+    /**
+     * Retrieves the multipliers of all slots. Unused and inactive slots have a multiplier of zero.
+     *
+     * @param result the solution of the problem
+     * @return the multipliers of the cuts, one per slot
+     */
+    public double[] getDuals(NLPResult result) {
+        return result.value(this.problem.getDualVariable(this.constraint)).toArray();
+    }
+
+    /**
+     * Retrieves the constraint of the whole block.
+     *
+     * @return an MXWrapper representing A x &lt;= ub
+     */
+    public MXWrapper getConstraint() {
+        return this.constraint;
+    }
+
+    /**
+     * Retrieves the number of used slots.
+     *
+     * @return the number of cuts added since construction or the latest {@link #clear()}
+     */
+    public int size() {
+        return this.slots.size();
+    }
+
+    /**
+     * Retrieves the number of unused slots.
+     *
+     * @return the number of cuts which can still be added
+     */
+    public int remaining() {
+        return this.slots.remaining();
+    }
+
+    public int getCapacity() {
+        return this.slots.capacity();
+    }
+
+    public int getNumberOfVariables() {
+        return this.slots.numberOfVariables();
+    }
+}
@@ -0,0 +1,36 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import java.time.Duration;
+
+/**
+ * Receives metrics of a solve, e.g. to forward them to a metrics library.
+ * The methods correspond to gauges, counters and timers of Micrometer-style registries.
+ *
+ * @see NLPSolveStats#exportTo(MetricsSink, String)
+ */
+public interface MetricsSink {
+
+    /**
+     * Records the current value of a gauge.
+     *
+     * @param name  the name of the metric
+     * @param value the value
+     */
+    void gauge(String name, double value);
+
+    /**
+     * Increments a counter.
+     *
+     * @param name   the name of the metric
+     * @param amount the increment
+     */
+    void count(String name, long amount);
+
+    /**
+     * Records the duration of an event.
+     *
+     * @param name     the name of the metric
+     * @param duration the duration
+     */
+    void time(String name, Duration duration);
+}
@@ -0,0 +1,228 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionUtils;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Solves many instances of an NLPProblem which differ only in parameter values and initial guesses in parallel.
+ * The problem is baked once. Its nlpsol function is transferred to each worker thread of a {@link CasADiExecutor}
+ * by serialization and deserialized there once per thread. Every worker thread deletes its unreachable CasADi
+ * objects with its own cleaner.
+ *
+ * Instances do not influence each other: unless an initial guess is given, each instance starts from the initial
+ * values of the baked problem. The ordering of the arrays is the same as for {@link CompiledNLP}.
+ *
+ * Usage:
+ * <pre>
+ * try (NLPBatchSolver batch = new NLPBatchSolver(problem, 8)) {
+ *     List&lt;CompiledNLP.Result&gt; results = batch.solveAll(parameterRows);
+ * }
+ * </pre>
+ */
+public class NLPBatchSolver implements AutoCloseable {
+
+    /**
+     * A single instance to solve.
+     *
+     * @param params the values of the parameters
+     * @param x0     the initial guess of the decision variables or null for the initial values of the problem
+     * @param lamG0  the initial guess of the constraint multipliers or null for the initial values of the problem
+     */
+    public record Instance(double[] params, double[] x0, double[] lamG0) {
+
+        public Instance(double[] params) {
+            this(params, null, null);
+        }
+    }
+
+    /**
+     * Receives the solutions in the order of completion.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+
+        /**
+         * @param index  the position of the instance in the submitted list
+         * @param result the solution of the instance
+         */
+        void accept(int index, CompiledNLP.Result result);
+    }
+
+    private final String serializedSolver;
+    private final double[][] bakedInputs;
+    private final CasADiExecutor executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * One solver per worker thread. Created lazily on the worker thread itself and only used there.
+     * Not a ThreadLocal: its entries would outlive this batch solver on the threads of an external executor.
+     */
+    private final Map<Thread, CompiledNLP> workerSolvers = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Bakes the problem on the calling thread and starts one worker thread per available processor.
+     *
+     * @param problem the problem defining the structure of all instances. The solver must be set already.
+     */
+    public NLPBatchSolver(NLPProblem problem) {
+        this(problem, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Bakes the problem on the calling thread and starts worker threads which are stopped by {@link #close()}.
+     *
+     * @param problem     the problem defining the structure of all instances. The solver must be set already.
+     * @param threadCount the number of worker threads
+     * @throws IllegalStateException if an iteration callback is registered on the problem
+     */
+    public NLPBatchSolver(NLPProblem problem, int threadCount) {
+        this(problem, new CasADiExecutor(threadCount), true);
+    }
+
+    /**
+     * Bakes the problem on the calling thread and solves on the threads of the given executor.
+     * The executor is not closed by {@link #close()}. The per-thread solvers are released by {@link #close()} and
+     * deleted by the cleaner of each worker thread after its next task or when the executor is closed.
+     *
+     * @param problem  the problem defining the structure of all instances. The solver must be set already.
+     * @param executor the executor to solve on
+     * @throws IllegalStateException if an iteration callback is registered on the problem
+     */
+    public NLPBatchSolver(NLPProblem problem, CasADiExecutor executor) {
+        this(problem, executor, false);
+    }
+
+    private NLPBatchSolver(NLPProblem problem, CasADiExecutor executor, boolean ownsExecutor) {
+        CompiledNLP.Baked baked = CompiledNLP.bakeSerializable(problem);
+        this.serializedSolver = baked.solver().serialize();
+        this.bakedInputs = baked.inputs();
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    private CompiledNLP workerSolver() {
+        Thread thread = Thread.currentThread();
+        CompiledNLP solver = this.workerSolvers.get(thread);
+        if (solver == null) {
+            solver = new CompiledNLP(new CompiledNLP.Baked(FunctionUtils.deserialize(this.serializedSolver), this.bakedInputs));
+            this.workerSolvers.put(thread, solver);
+            if (this.closed) {
+                // Instance submitted before close() and solved after it.
+                this.workerSolvers.remove(thread);
+            }
+        }
+        return solver;
+    }
+
+    /**
+     * Submits a single instance.
+     *
+     * @param instance the instance to solve
+     * @return the solution, completed on a worker thread
+     * @throws IllegalStateException if this batch solver is closed
+     */
+    public CompletableFuture<CompiledNLP.Result> submit(Instance instance) {
+        if (this.closed) {
+            throw new IllegalStateException("The batch solver is closed.");
+        }
+        return this.executor.submit(() -> {
+            CompiledNLP solver = workerSolver();
+            solver.reset();
+            return solver.resolve(instance.params(), instance.x0(), instance.lamG0());
+        });
+    }
+
+    /**
+     * Submits all instances.
+     *
+     * @param instances the instances to solve
+     * @return the solutions in the order of the instances
+     */
+    public List<CompletableFuture<CompiledNLP.Result>> submitAll(List<Instance> instances) {
+        List<CompletableFuture<CompiledNLP.Result>> futures = new ArrayList<>(instances.size());
+        for (Instance instance : instances) {
+            futures.add(submit(instance));
+        }
+        return futures;
+    }
+
+    /**
+     * Solves all instances given by their parameter values and waits for the solutions.
+     *
+     * @param params the values of the parameters of each instance
+     * @return the solutions in the order of the instances
+     * @throws CompletionException if a solve threw an exception
+     */
+    public List<CompiledNLP.Result> solveAll(Iterable<double[]> params) {
+        List<Instance> instances = new ArrayList<>();
+        for (double[] row : params) {
+            instances.add(new Instance(row));
+        }
+        return solveInstances(instances);
+    }
+
+    /**
+     * Solves all instances and waits for the solutions.
+     *
+     * @param instances the instances to solve
+     * @return the solutions in the order of the instances
+     * @throws CompletionException if a solve threw an exception
+     */
+    public List<CompiledNLP.Result> solveInstances(List<Instance> instances) {
+        List<CompiledNLP.Result> results = new ArrayList<>(instances.size());
+        for (CompletableFuture<CompiledNLP.Result> future : submitAll(instances)) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Solves all instances and passes each solution to the consumer as soon as it is available.
+     * The consumer is called on the calling thread.
+     *
+     * @param instances the instances to solve
+     * @param consumer  receives the solutions in the order of completion
+     * @throws CompletionException if a solve threw an exception. Remaining solutions are not passed to the consumer.
+     * @throws InterruptedException if interrupted while waiting for a solution
+     */
+    public void solveInstances(List<Instance> instances, ResultConsumer consumer) throws InterruptedException {
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        List<CompletableFuture<CompiledNLP.Result>> futures = submitAll(instances);
+        for (int i = 0; i < futures.size(); ++i) {
+            final int index = i;
+            futures.get(i).whenComplete((result, ex) -> completed.add(index));
+        }
+        for (int i = 0; i < futures.size(); ++i) {
+            int index = completed.take();
+            consumer.accept(index, futures.get(index).join());
+        }
+    }
+
+    public int getThreadCount() {
+        return this.executor.getThreadCount();
+    }
+
+    /**
+     * Stops the worker threads after all submitted instances are solved, if they were started by this batch solver.
+     * Otherwise, releases the per-thread solvers. Instances submitted before are still solved.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.ownsExecutor) {
+            this.executor.close();
+        }
+        // Only drops the references. The solvers are deleted by the cleaners of their worker threads.
+        this.workerSolvers.clear();
+    }
+}
@@ -0,0 +1,307 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.solver.CasADiSolver;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionUtils;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiExecutor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Multi-start search for a global minimum of a non-convex NLPProblem. Local solves from sampled initial guesses run
+ * in parallel on the worker threads of a {@link CasADiExecutor}. Like {@link NLPBatchSolver}, the problem is baked
+ * once and every worker thread solves with its own deserialized copy of the solver.
+ *
+ * Local minima closer than the basin radius to an already found one are considered the same basin. Only the best
+ * solution per basin is kept, and at most top-k basins are reported.
+ *
+ * Optionally, a probe solver with a small iteration limit runs first from every initial guess. If the probe iterate
+ * is within the probe radius of an already found minimum, the start is cut short. Otherwise, the full solve is
+ * warm-started from the probe iterate.
+ *
+ * Usage:
+ * <pre>
+ * try (NLPMultiStart multiStart = new NLPMultiStart(problem, StartSampler.latinHypercube(42), 8)) {
+ *     NLPMultiStart.Summary summary = multiStart.run(64, lower, upper);
+ *     CompiledNLP.Result best = summary.best().get(0);
+ * }
+ * </pre>
+ */
+public class NLPMultiStart implements AutoCloseable {
+
+    /**
+     * Outcome of a multi-start run.
+     *
+     * @param best     the best solution per basin, at most top-k, ordered by ascending objective
+     * @param starts   the number of initial guesses
+     * @param solved   the number of starts solved successfully
+     * @param cutShort the number of starts cut short after the probe
+     * @param failed   the number of starts for which the solver did not report success
+     */
+    public record Summary(List<CompiledNLP.Result> best, int starts, int solved, int cutShort, int failed) {
+
+    }
+
+    private enum Outcome {
+        SOLVED, CUT_SHORT, FAILED
+    }
+
+    /**
+     * The serialized probe solver, replaced as a whole by {@link #setProbeSolver(CasADiSolver, Dictionary, Dictionary)}.
+     */
+    private record Probe(String serializedSolver, double[][] bakedInputs) {
+
+    }
+
+    /**
+     * The solvers of a single worker thread. The probe solver was deserialized from the given probe.
+     */
+    private record WorkerSolvers(CompiledNLP solver, Probe source, CompiledNLP probe) {
+
+    }
+
+    private final StartSampler sampler;
+    private final CasADiExecutor executor;
+
+    private final String serializedSolver;
+    private final double[][] bakedInputs;
+    private final double[] params;
+    private volatile Probe probe;
+
+    private final NLPProblem problem;
+    private final ThreadLocal<WorkerSolvers> workerSolvers = new ThreadLocal<>();
+
+    private int topK = 5;
+    private double basinRadius = 1e-4;
+    private double probeRadius = Double.NaN;
+
+    // Guarded by this.
+    private final List<CompiledNLP.Result> basins = new ArrayList<>();
+
+    /**
+     * Bakes the problem on the calling thread and starts worker threads which are stopped by {@link #close()}.
+     *
+     * @param problem     the problem to solve. The solver must be set already.
+     * @param sampler     generates the initial guesses
+     * @param parallelism the number of worker threads
+     */
+    public NLPMultiStart(NLPProblem problem, StartSampler sampler, int parallelism) {
+        CompiledNLP.Baked baked = CompiledNLP.bakeSerializable(problem);
+        this.serializedSolver = baked.solver().serialize();
+        this.bakedInputs = baked.inputs();
+        this.params = this.bakedInputs[(int) baked.solver().getIndexIn("p")];
+        this.problem = problem;
+        this.sampler = sampler;
+        this.executor = new CasADiExecutor(parallelism);
+    }
+
+    /**
+     * Sets the maximum number of reported basins.
+     *
+     * @param topK the number of best solutions to keep
+     */
+    public void setTopK(int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("At least one solution must be kept.");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Sets the Euclidean distance in the decision variables below which two local minima belong to the same basin.
+     *
+     * @param basinRadius the radius of a basin
+     */
+    public void setBasinRadius(double basinRadius) {
+        this.basinRadius = basinRadius;
+    }
+
+    /**
+     * Sets the Euclidean distance in the decision variables below which a probe iterate is considered to lie in an
+     * already found basin, so the start is cut short. Should cover the distance of a probe iterate to its local
+     * minimum, which is usually much larger than the basin radius. Defaults to the basin radius.
+     *
+     * @param probeRadius the radius around found minima within which starts are cut short
+     */
+    public void setProbeRadius(double probeRadius) {
+        this.probeRadius = probeRadius;
+    }
+
+    /**
+     * Retrieves the radius within which probe iterates cut a start short.
+     *
+     * @return the probe radius, or the basin radius if not set
+     */
+    public double getProbeRadius() {
+        return Double.isNaN(this.probeRadius) ? this.basinRadius : this.probeRadius;
+    }
+
+    /**
+     * Enables probe solves which allow to cut starts short. The probe is a copy of the problem with another solver,
+     * which should be limited to a few iterations, e.g. IPOPT with max_iter.
+     * May be called between runs. The worker threads replace their probe solver at their next start.
+     * Must not be called while a run is in progress.
+     *
+     * @param solver        the CasADiSolver enumeration value of the probe
+     * @param pluginOptions the plugin options of the probe
+     * @param solverOptions the solver options of the probe, including the iteration limit
+     */
+    public void setProbeSolver(CasADiSolver solver, Dictionary pluginOptions, Dictionary solverOptions) {
+        NLPProblem probe = this.problem.copy();
+        probe.setSolver(solver, pluginOptions, solverOptions);
+        CompiledNLP.Baked baked = CompiledNLP.bakeSerializable(probe);
+        this.probe = new Probe(baked.solver().serialize(), baked.inputs());
+    }
+
+    /**
+     * Solves from initial guesses sampled within a box and waits for all starts.
+     * Basins found by previous runs are kept.
+     *
+     * @param starts the number of initial guesses
+     * @param lower  the lower bounds of the box, one per element of the stacked decision variables
+     * @param upper  the upper bounds of the box, one per element of the stacked decision variables
+     * @return the summary of the run
+     */
+    public Summary run(int starts, double[] lower, double[] upper) {
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException("The bounds must have the same length.");
+        }
+        return run(this.sampler.sample(starts, lower, upper));
+    }
+
+    /**
+     * Solves from the given initial guesses and waits for all starts.
+     * Basins found by previous runs are kept.
+     *
+     * @param initialGuesses the initial guesses of the stacked decision variables
+     * @return the summary of the run
+     */
+    public Summary run(double[][] initialGuesses) {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(initialGuesses.length);
+        for (double[] x0 : initialGuesses) {
+            futures.add(this.executor.submit(() -> solveStart(x0)));
+        }
+        int solved = 0;
+        int cutShort = 0;
+        int failed = 0;
+        for (CompletableFuture<Outcome> future : futures) {
+            switch (future.join()) {
+                case SOLVED -> ++solved;
+                case CUT_SHORT -> ++cutShort;
+                case FAILED -> ++failed;
+            }
+        }
+        return new Summary(getBest(), initialGuesses.length, solved, cutShort, failed);
+    }
+
+    private Outcome solveStart(double[] x0) {
+        WorkerSolvers solvers = workerSolvers();
+        double[] guess = x0;
+        double[] lamG0 = null;
+        if (solvers.probe() != null) {
+            solvers.probe().reset();
+            CompiledNLP.Result probe = solvers.probe().resolve(this.params, x0, null);
+            if (isInFoundBasin(probe.x())) {
+                return Outcome.CUT_SHORT;
+            }
+            guess = probe.x();
+            lamG0 = probe.lamG();
+        }
+        solvers.solver().reset();
+        CompiledNLP.Result result = solvers.solver().resolve(this.params, guess, lamG0);
+        if (!result.success()) {
+            return Outcome.FAILED;
+        }
+        addBasin(result);
+        return Outcome.SOLVED;
+    }
+
+    /**
+     * Deserializes the solvers of the current thread on first use and the probe solver again once it was replaced.
+     */
+    private WorkerSolvers workerSolvers() {
+        WorkerSolvers solvers = this.workerSolvers.get();
+        Probe currentProbe = this.probe;
+        if (solvers == null || solvers.source() != currentProbe) {
+            CompiledNLP solver = solvers != null ? solvers.solver()
+                    : new CompiledNLP(new CompiledNLP.Baked(FunctionUtils.deserialize(this.serializedSolver), this.bakedInputs));
+            CompiledNLP probeSolver = currentProbe == null ? null
+                    : new CompiledNLP(new CompiledNLP.Baked(FunctionUtils.deserialize(currentProbe.serializedSolver()), currentProbe.bakedInputs()));
+            solvers = new WorkerSolvers(solver, currentProbe, probeSolver);
+            this.workerSolvers.set(solvers);
+        }
+        return solvers;
+    }
+
+    private synchronized boolean isInFoundBasin(double[] x) {
+        double radius = getProbeRadius();
+        for (CompiledNLP.Result basin : this.basins) {
+            if (distance(basin.x(), x) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the better solution if the basin is already known. Otherwise, adds the basin and drops the worst one
+     * beyond top-k.
+     */
+    private synchronized void addBasin(CompiledNLP.Result result) {
+        for (int i = 0; i < this.basins.size(); ++i) {
+            CompiledNLP.Result basin = this.basins.get(i);
+            if (distance(basin.x(), result.x()) <= this.basinRadius) {
+                if (result.f() < basin.f()) {
+                    this.basins.set(i, result);
+                    this.basins.sort(Comparator.comparingDouble(CompiledNLP.Result::f));
+                }
+                return;
+            }
+        }
+        this.basins.add(result);
+        this.basins.sort(Comparator.comparingDouble(CompiledNLP.Result::f));
+        if (this.basins.size() > this.topK) {
+            this.basins.remove(this.basins.size() - 1);
+        }
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; ++i) {
+            double d = a[i] - b[i];
+            sum += d * d;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Retrieves the best solution per basin found so far.
+     *
+     * @return at most top-k solutions, ordered by ascending objective
+     */
+    public synchronized List<CompiledNLP.Result> getBest() {
+        return List.copyOf(this.basins);
+    }
+
+    /**
+     * Forgets all found basins.
+     */
+    public synchronized void clear() {
+        this.basins.clear();
+    }
+
+    public int getParallelism() {
+        return this.executor.getThreadCount();
+    }
+
+    /**
+     * Stops the worker threads after all submitted starts are solved.
+     */
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+}
@@ -18,8 +18,13 @@ import de.dhbw.rahmlab.casadi.impl.casadi.DM;
 import de.dhbw.rahmlab.casadi.impl.casadi.Opti;
 import de.dhbw.rahmlab.casadi.impl.casadi.OptiAdvanced;
 import de.dhbw.rahmlab.casadi.impl.std.StdVectorDM;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiExecutor;
+import de.dhbw.rahmlab.casadi.implUtil.WrapUtil;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 /**
  * Represents a non-linear programming (NLP) problem, providing methods to define and solve optimization problems.
@@ -27,8 +32,39 @@ import java.util.Arrays;
  */
 public class NLPProblem {
 
+    private static final BooleanSupplier NOT_REQUESTED = () -> false;
+
     private final Opti nlpProblem;
 
+    /**
+     * The solver only keeps a raw pointer to its iteration callback. Keeps the callback alive. Created on first use.
+     */
+    private IterationCallback iterationCallback;
+    /**
+     * Whether the solver is set with the option "iteration_callback". Permanently while an IterationListener is
+     * registered, otherwise from a budgeted or asynchronous solve until the next solve or bake without it.
+     */
+    private boolean callbackAttached;
+
+    /**
+     * The last solver configuration. It is set again whenever the iteration callback is attached or detached.
+     */
+    private String solverName;
+    private Dictionary pluginOptions;
+    private Dictionary solverOptions;
+
+    /**
+     * Runs solveAsync without a given executor. Created on first use.
+     */
+    private CasADiExecutor executor;
+
+    private QPFastPath qpFastPath;
+    private boolean solvedAsQP;
+    /**
+     * Number of the latest solve. Results of earlier solves do not match the solver state of Opti anymore.
+     */
+    private long solveCount;
+
     /**
      * Constructs an NLPProblem with a specified problem type.
      *
@@ -223,6 +259,18 @@ public class NLPProblem {
 //                .forEach(type -> System.out.println("Added constraint with type: " + type));
     }
 
+    /**
+     * Adds a preallocated block of linear constraints a^T x &lt;= b. Cuts added to the block later on change only
+     * parameter values, so the next solve reuses the baked solver instead of rebuilding it.
+     *
+     * @param x        the decision variables the cuts are linear in.
+     * @param capacity the maximum number of cuts of the block.
+     * @return a LinearCutBlock with all slots unused.
+     */
+    public LinearCutBlock addCutBlock(MXWrapper x, int capacity) {
+        return new LinearCutBlock(this, x, capacity);
+    }
+
     /**
      * Clears all constraints from the optimization problem.
      */
@@ -250,7 +298,10 @@ public class NLPProblem {
      * @param solverOptions the solver options as a Dictionary.
      */
     public void setSolver(CasADiSolver solver, Dictionary pluginOptions, Dictionary solverOptions) {
-        this.nlpProblem.solver(solver.getSolverName(), pluginOptions.getCasADiObject(), solverOptions.getCasADiObject());
+        this.solverName = solver.getSolverName();
+        this.pluginOptions = new Dictionary(pluginOptions);
+        this.solverOptions = new Dictionary(solverOptions);
+        applySolver();
     }
 
     /**
@@ -260,7 +311,7 @@ public class NLPProblem {
      * @param pluginOptions the plugin options as a Dictionary.
      */
     public void setSolver(CasADiSolver solver, Dictionary pluginOptions) {
-        this.nlpProblem.solver(solver.getSolverName(), pluginOptions.getCasADiObject());
+        setSolver(solver, pluginOptions, new Dictionary());
     }
 
     /**
@@ -269,7 +320,53 @@ public class NLPProblem {
      * @param solver the CasADiSolver enumeration value.
      */
     public void setSolver(CasADiSolver solver) {
-        this.nlpProblem.solver(solver.getSolverName());
+        setSolver(solver, new Dictionary(), new Dictionary());
+    }
+
+    /**
+     * Sets the last solver configuration on Opti, together with the iteration callback if it is attached.
+     */
+    private void applySolver() {
+        if (this.solverName == null) {
+            return;
+        }
+        Dictionary plugin = this.pluginOptions;
+        if (this.callbackAttached) {
+            plugin = new Dictionary(plugin).add("iteration_callback", this.iterationCallback.asSolverOption());
+        }
+        this.nlpProblem.solver(this.solverName, plugin.getCasADiObject(), this.solverOptions.getCasADiObject());
+    }
+
+    /**
+     * Sets a conic solver which is used instead of the NLP solver whenever the objective is quadratic and the
+     * constraints are linear in the decision variables. The structure is detected, and the coefficients are
+     * extracted, only when the problem changes. Later solves only refresh the numeric values.
+     * Not used if an IterationListener or a budget is given.
+     *
+     * @param solver  the CasADiSolver enumeration value of the conic solver, e.g. OSQP.
+     * @param options the options of the conic solver as a Dictionary.
+     */
+    public void setQPSolver(CasADiSolver solver, Dictionary options) {
+        this.qpFastPath = new QPFastPath(this.nlpProblem, solver, options);
+    }
+
+    /**
+     * Sets a conic solver which is used instead of the NLP solver whenever the problem is a QP.
+     *
+     * @param solver the CasADiSolver enumeration value of the conic solver, e.g. OSQP.
+     * @see #setQPSolver(CasADiSolver, Dictionary)
+     */
+    public void setQPSolver(CasADiSolver solver) {
+        setQPSolver(solver, new Dictionary());
+    }
+
+    /**
+     * Checks whether the latest solve was performed by the conic solver.
+     *
+     * @return true if the problem was solved as a QP.
+     */
+    public boolean isSolvedAsQP() {
+        return this.solvedAsQP;
     }
 
     /**
@@ -346,7 +443,7 @@ public class NLPProblem {
      * @return an NLPResult representing the solution.
      */
     public NLPResult solve() {
-        return new NLPResult(this.nlpProblem.solve());
+        return solveWithCallback(false, Long.MAX_VALUE, NOT_REQUESTED);
     }
 
     /**
@@ -355,7 +452,214 @@ public class NLPProblem {
      * @return an NLPResult representing the solution.
      */
     public NLPResult solveWithLimits() {
-        return new NLPResult(this.nlpProblem.solve_limited());
+        return solveWithCallback(true, Long.MAX_VALUE, NOT_REQUESTED);
+    }
+
+    /**
+     * Solves the optimization problem within a wall-clock time budget.
+     * The budget is checked after every iteration of the solver. If it is exceeded, the solve is stopped and the
+     * solution at the latest iterate is returned. Its statistics report no success.
+     * A single iteration is not interrupted. The iteration callback which checks the budget is attached for this
+     * solve only. It does not prevent later solves from using the QP solver or the problem from being baked.
+     *
+     * @param budget the maximum wall-clock time of the solve.
+     * @return an NLPResult representing the solution or the latest iterate.
+     */
+    public NLPResult solve(Duration budget) {
+        return solveWithCallback(false, budget.toNanos(), NOT_REQUESTED);
+    }
+
+    /**
+     * Solves the optimization problem on the single thread of a CasADiExecutor owned by this problem.
+     * The problem must not be used by other threads until the returned future is completed.
+     *
+     * @return a future of the solution, which allows to stop the solve.
+     */
+    public NLPSolveFuture solveAsync() {
+        return solveAsync(null);
+    }
+
+    /**
+     * Solves the optimization problem within a wall-clock time budget on the single thread of a CasADiExecutor owned
+     * by this problem. The executor is created by the first call and closed once the problem is unreachable.
+     * The problem must not be used by other threads until the returned future is completed.
+     *
+     * @param budget the maximum wall-clock time of the solve, or null for no limit.
+     * @return a future of the solution, which allows to stop the solve.
+     * @see #solve(Duration)
+     */
+    public NLPSolveFuture solveAsync(Duration budget) {
+        return solveAsync(budget, ownedExecutor());
+    }
+
+    /**
+     * Solves the optimization problem within a wall-clock time budget on a thread of the given executor.
+     * The problem must not be used by other threads until the returned future is completed.
+     * The CasADi objects of the solve are registered with the shared cleaner, so the result may leave the executor.
+     *
+     * @param budget   the maximum wall-clock time of the solve, or null for no limit.
+     * @param executor the executor which runs the solve.
+     * @return a future of the solution, which allows to stop the solve.
+     * @see CasADiExecutor#submitShared(java.util.concurrent.Callable)
+     */
+    public NLPSolveFuture solveAsync(Duration budget, CasADiExecutor executor) {
+        NLPSolveFuture future = new NLPSolveFuture();
+        long budgetNanos = (budget == null) ? Long.MAX_VALUE : budget.toNanos();
+        CompletableFuture<NLPResult> task = executor.submitShared(
+            () -> solveWithCallback(false, budgetNanos, future::isStopRequested));
+        task.whenComplete((result, ex) -> {
+            if (ex == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(ex);
+            }
+        });
+        future.setTask(task);
+        return future;
+    }
+
+    private synchronized CasADiExecutor ownedExecutor() {
+        if (this.executor == null) {
+            CasADiExecutor created = new CasADiExecutor(1);
+            // The action must not reference this problem. A running solve keeps the problem reachable.
+            WrapUtil.CLEANER.register(this, created::close);
+            this.executor = created;
+        }
+        return this.executor;
+    }
+
+    /**
+     * Solves the optimization problem and translates a stop requested via the iteration callback.
+     *
+     * @param acceptLimits whether reaching a limit of the solver is accepted.
+     * @param budgetNanos  the maximum wall-clock time of the solve.
+     * @param stopRequested polled after every iteration.
+     * @return an NLPResult representing the solution or, if stopped by request or budget, the latest iterate.
+     * @throws NLPStoppedException if the IterationListener stopped the solve.
+     */
+    private NLPResult solveWithCallback(boolean acceptLimits, long budgetNanos, BooleanSupplier stopRequested) {
+        ++this.solveCount;
+        this.solvedAsQP = false;
+        boolean needsCallback = hasListener() || budgetNanos != Long.MAX_VALUE || stopRequested != NOT_REQUESTED;
+        // A callback installed only for the previous solve is detached not before now. Detaching resets the
+        // nlpsol function of Opti, whose statistics the previous result still reads.
+        attachIterationCallback(needsCallback);
+        if (!needsCallback) {
+            if (this.qpFastPath != null && this.qpFastPath.isApplicable()) {
+                this.solvedAsQP = true;
+                return this.qpFastPath.solve(acceptLimits).ofSolve(this, this.solveCount);
+            }
+            return new NLPResult(acceptLimits ? this.nlpProblem.solve_limited() : this.nlpProblem.solve())
+                    .ofSolve(this, this.solveCount);
+        }
+        IterationCallback callback = this.iterationCallback;
+        callback.start(budgetNanos, stopRequested);
+        NLPResult result;
+        try {
+            result = new NLPResult(acceptLimits ? this.nlpProblem.solve_limited() : this.nlpProblem.solve())
+                    .ofSolve(this, this.solveCount);
+        } catch (RuntimeException ex) {
+            // A stopped solver reports e.g. User_Requested_Stop, which Opti treats as a failure.
+            callback.rethrowListenerException();
+            if (callback.getStopReason() == IterationCallback.StopReason.NONE) {
+                throw ex;
+            }
+            return stopped(callback, ex);
+        }
+        // Solver plugins may also catch an exception of the listener and return regularly, e.g. with solve_limited.
+        callback.rethrowListenerException();
+        if (callback.getStopReason() != IterationCallback.StopReason.NONE) {
+            return stopped(callback, null);
+        }
+        return result;
+    }
+
+    /**
+     * @param callback the callback which stopped the solve.
+     * @param cause    the failure reported by Opti, or null.
+     * @return the latest iterate, if stopped by request or budget.
+     * @throws NLPStoppedException if stopped by the IterationListener.
+     */
+    private NLPResult stopped(IterationCallback callback, RuntimeException cause) {
+        if (callback.getStopReason() == IterationCallback.StopReason.LISTENER) {
+            throw new NLPStoppedException(callback.getLastIteration(), latestIterate(), cause);
+        }
+        return latestIterate();
+    }
+
+    /**
+     * The solver stores the latest iterate also if it was stopped.
+     *
+     * @return an NLPResult representing the latest iterate.
+     */
+    private NLPResult latestIterate() {
+        this.nlpProblem.advanced().mark_solved(true);
+        return new NLPResult(this.nlpProblem.latest_solution()).ofSolve(this, this.solveCount);
+    }
+
+    /**
+     * Whether an iteration callback is set as solver option. The nlpsol function then cannot be serialized.
+     * A callback which was only attached for a budgeted or asynchronous solve is detached first.
+     */
+    boolean hasIterationCallback() {
+        attachIterationCallback(hasListener());
+        return this.callbackAttached;
+    }
+
+    /**
+     * @param solveNumber the number of the solve which produced a result.
+     * @return true if the problem was not solved again since.
+     */
+    boolean isLatestSolve(long solveNumber) {
+        return solveNumber == this.solveCount;
+    }
+
+    private boolean hasListener() {
+        return this.iterationCallback != null && this.iterationCallback.hasListener();
+    }
+
+    /**
+     * Sets the solver again if the iteration callback is to be attached or detached. Opti then rebuilds the nlpsol
+     * function on the next solve.
+     */
+    private void attachIterationCallback(boolean attach) {
+        if (attach == this.callbackAttached) {
+            return;
+        }
+        if (this.iterationCallback == null) {
+            this.iterationCallback = new IterationCallback(this.nlpProblem);
+        }
+        this.callbackAttached = attach;
+        applySolver();
+    }
+
+    /**
+     * Registers a listener which is called after every iteration of the solver.
+     * The listener receives the iteration number, the objective, the primal and dual infeasibility and the elapsed
+     * wall-clock time. If it returns false, the solve is stopped and throws an {@link NLPStoppedException}.
+     * Replaces a previously registered listener.
+     * While a listener is registered, the solver cannot be serialized and the QP solver is not used.
+     *
+     * @param listener the listener, or null to remove the current listener and detach the iteration callback.
+     */
+    public void onIteration(IterationListener listener) {
+        if (listener != null && this.iterationCallback == null) {
+            this.iterationCallback = new IterationCallback(this.nlpProblem);
+        }
+        if (this.iterationCallback != null) {
+            this.iterationCallback.setListener(listener);
+        }
+        attachIterationCallback(listener != null);
+    }
+
+    /**
+     * Prepares the optimization problem once for repeated solves with changing parameter values.
+     * The solver must be set already.
+     *
+     * @return a CompiledNLP solving the current state of the problem.
+     */
+    public CompiledNLP compile() {
+        return new CompiledNLP(this);
     }
 
     /**
@@ -436,15 +740,41 @@ public class NLPProblem {
      * @return a Dictionary representing the statistics.
      */
     public Dictionary getStatistics() {
+        if (this.solvedAsQP) {
+            return this.qpFastPath.getStatistics();
+        }
         return new Dictionary(this.nlpProblem.stats());
     }
 
     /**
-     * Retrieves the status of the solver.
+     * Retrieves the positions of the decision variables within the stacked values of a result.
+     * The problem must be solved or baked.
+     *
+     * @return a ResultLayout of the decision variables.
+     * @see NLPResult#valuesInto(double[])
+     */
+    public ResultLayout getResultLayout() {
+        return ResultLayout.of(this.nlpProblem);
+    }
+
+    /**
+     * Retrieves the typed statistics of the latest solve.
+     *
+     * @return an NLPSolveStats representing the statistics.
+     */
+    public NLPSolveStats getSolveStats() {
+        return NLPSolveStats.of(getStatistics());
+    }
+
+    /**
+     * Retrieves the status of the solver. After a solve by the conic solver, its return status.
      *
      * @return a string representing the solver status.
      */
     public String getSolverStatus() {
+        if (this.solvedAsQP) {
+            return getSolveStats().returnStatus();
+        }
         return this.nlpProblem.return_status();
     }
 
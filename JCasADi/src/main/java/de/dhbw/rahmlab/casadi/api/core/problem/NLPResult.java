@@ -2,6 +2,7 @@ package de.dhbw.rahmlab.casadi.api.core.problem;
 
 import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.MapStringToDMWrapper;
 import de.dhbw.rahmlab.casadi.api.core.interfaces.Wrapper;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
@@ -15,6 +16,22 @@ import de.dhbw.rahmlab.casadi.impl.casadi.OptiSol;
 public class NLPResult {
 
     private final OptiSol optiSol;
+    /**
+     * The statistics of the conic solver, if solved by the QP fast path. Opti only knows the solution then.
+     */
+    private final Dictionary conicStatistics;
+    /**
+     * The values of p, lbg and ubg passed to the conic solver, if solved by the QP fast path. Opti does not know them
+     * then, its arguments are those of the latest call of nlpsol.
+     */
+    private final MapStringToDMWrapper conicArguments;
+    /**
+     * The problem which produced this result and the number of its solve, to recognize outdated results.
+     * Unknown for results constructed from an OptiSol.
+     */
+    private NLPProblem problem;
+    private long solveNumber;
+    private ResultLayout layout;
 
     /**
      * Constructs an NLPResult using an existing OptiSol object.
@@ -22,7 +39,18 @@ public class NLPResult {
      * @param other the OptiSol object used to initialize the result.
      */
     public NLPResult(OptiSol other) {
+        this(other, null, null);
+    }
+
+    /**
+     * @param other           the OptiSol object used to initialize the result.
+     * @param conicStatistics the statistics of the conic solver which solved the problem instead of nlpsol.
+     * @param conicArguments  the values of p, lbg and ubg passed to the conic solver.
+     */
+    NLPResult(OptiSol other, Dictionary conicStatistics, MapStringToDMWrapper conicArguments) {
         this.optiSol = new OptiSol(other);
+        this.conicStatistics = conicStatistics;
+        this.conicArguments = conicArguments;
     }
 
     /**
@@ -31,7 +59,42 @@ public class NLPResult {
      * @param other the NLPResult object used to initialize the result.
      */
     public NLPResult(NLPResult other) {
-        this.optiSol = new OptiSol(other.getCasADiObject());
+        this(other.getCasADiObject(), other.conicStatistics, other.conicArguments);
+        this.problem = other.problem;
+        this.solveNumber = other.solveNumber;
+    }
+
+    /**
+     * Records the solve which produced this result.
+     *
+     * @param problem     the solved problem.
+     * @param solveNumber the number of the solve.
+     * @return this result.
+     */
+    NLPResult ofSolve(NLPProblem problem, long solveNumber) {
+        this.problem = problem;
+        this.solveNumber = solveNumber;
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException if the problem was solved again since this result.
+     */
+    void checkLatest() {
+        if (this.problem != null && !this.problem.isLatestSolve(this.solveNumber)) {
+            throw new IllegalStateException("The problem was solved again after this result. "
+                    + "Only the latest solution of a problem provides its solver state.");
+        }
+    }
+
+    /**
+     * @return the values of p, lbg and ubg of the solve which produced this result.
+     */
+    MapStringToDMWrapper solveArguments() {
+        if (this.conicArguments != null) {
+            return this.conicArguments;
+        }
+        return new MapStringToDMWrapper(this.optiSol.opti().advanced().arg());
     }
 
     /**
@@ -112,14 +175,149 @@ public class NLPResult {
     }
 
     /**
-     * Retrieves the statistics of the solution.
+     * Copies the values of all decision variables into out, stacked as described by {@link #getLayout()}.
+     *
+     * @param out receives the values, starting at index 0.
+     */
+    public void valuesInto(double[] out) {
+        valuesInto(out, 0);
+    }
+
+    /**
+     * Copies the values of all decision variables into out, stacked as described by {@link #getLayout()}.
+     *
+     * @param out    receives the values.
+     * @param offset the index in out of the first value.
+     */
+    public void valuesInto(double[] out, int offset) {
+        latest("x").nonzerosInto(out, offset);
+    }
+
+    /**
+     * Copies the multipliers of all constraints into out, in the order of {@link NLPProblem#getConstraints()}.
+     *
+     * @param out receives the multipliers, starting at index 0.
+     */
+    public void dualsInto(double[] out) {
+        dualsInto(out, 0);
+    }
+
+    /**
+     * Copies the multipliers of all constraints into out, in the order of {@link NLPProblem#getConstraints()}.
+     *
+     * @param out    receives the multipliers.
+     * @param offset the index in out of the first multiplier.
+     */
+    public void dualsInto(double[] out, int offset) {
+        latest("lam_g").nonzerosInto(out, offset);
+    }
+
+    /**
+     * Retrieves the values of all decision variables, stacked as described by {@link #getLayout()}.
+     *
+     * @return the stacked values.
+     */
+    public double[] values() {
+        return latest("x").toArray();
+    }
+
+    /**
+     * Retrieves the multipliers of all constraints, in the order of {@link NLPProblem#getConstraints()}.
+     *
+     * @return the multipliers.
+     */
+    public double[] duals() {
+        return latest("lam_g").toArray();
+    }
+
+    /**
+     * Retrieves the positions of the decision variables within the stacked values.
+     *
+     * @return the layout of the decision variables.
+     */
+    public ResultLayout getLayout() {
+        if (this.layout == null) {
+            this.layout = ResultLayout.of(this.optiSol.opti());
+        }
+        return this.layout;
+    }
+
+    /**
+     * Retrieves an output of the latest solve directly from the solver results.
+     *
+     * @param name the name of the output of the solver, e.g. x or lam_g.
+     * @return a DMWrapper containing the output.
+     */
+    private DMWrapper latest(String name) {
+        return new DMWrapper(this.optiSol.opti().advanced().res().get(name));
+    }
+
+    /**
+     * Computes the derivatives of the decision variables with respect to parameters at the solution, without
+     * re-solving. One linear solve with the KKT matrix covers all given parameters.
+     * Must be called on the latest solution of the problem.
+     *
+     * @param parameters the parameters to differentiate with respect to.
+     * @return the dense sensitivities in column-major order, one row per element of the stacked decision variables
+     *         (see {@link #getLayout()}) and one column per element of the parameters.
+     * @throws IllegalStateException if the problem was solved again after this result.
+     */
+    public double[] parametricSensitivity(MXWrapper... parameters) {
+        return parametricSensitivityMatrix(parameters).densify().toArray();
+    }
+
+    /**
+     * Computes the derivatives of the decision variables with respect to parameters at the solution, without
+     * re-solving. Structural zeros are dropped, so the nonzeros can be retrieved as a sparse block.
+     * Must be called on the latest solution of the problem.
+     *
+     * @param parameters the parameters to differentiate with respect to.
+     * @return a sparse DMWrapper with one row per element of the stacked decision variables and one column per
+     *         element of the parameters.
+     * @throws IllegalStateException if the problem was solved again after this result.
+     * @see #parametricSensitivity(MXWrapper...)
+     */
+    public DMWrapper parametricSensitivityMatrix(MXWrapper... parameters) {
+        return ParametricSensitivity.compute(this, parameters);
+    }
+
+    /**
+     * Retrieves the statistics of the solution. If the problem was solved by the conic solver set via
+     * {@link NLPProblem#setQPSolver(de.dhbw.rahmlab.casadi.api.core.solver.CasADiSolver, Dictionary)}, these are the
+     * statistics of the conic solver.
      *
      * @return a Dictionary containing the statistics.
      */
     public Dictionary getStats() {
+        if (this.conicStatistics != null) {
+            return new Dictionary(this.conicStatistics);
+        }
         return new Dictionary(this.optiSol.stats());
     }
 
+    /**
+     * Retrieves the typed statistics of the solution.
+     *
+     * @return an NLPSolveStats containing the statistics.
+     * @see #getStats()
+     */
+    public NLPSolveStats getSolveStats() {
+        if (this.conicStatistics != null) {
+            return NLPSolveStats.of(this.conicStatistics);
+        }
+        return NLPSolveStats.of(this.optiSol.stats());
+    }
+
+    /**
+     * Retrieves the return status of the solver.
+     *
+     * @return a string representing the return status, empty if not reported by the solver.
+     * @see #getStats()
+     */
+    public String getReturnStatus() {
+        return getSolveStats().returnStatus();
+    }
+
     /**
      * Retrieves the NLPProblem associated with the solution.
      *
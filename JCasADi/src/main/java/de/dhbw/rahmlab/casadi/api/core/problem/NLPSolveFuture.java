@@ -0,0 +1,60 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Future of an asynchronous solve of an NLPProblem.
+ * The solve can be stopped from any thread. It stops at the next iteration of the solver.
+ *
+ * @see NLPProblem#solveAsync(java.time.Duration)
+ */
+public class NLPSolveFuture extends CompletableFuture<NLPResult> {
+
+    private volatile boolean stopRequested = false;
+    private volatile CompletableFuture<?> task;
+
+    NLPSolveFuture() {
+    }
+
+    /**
+     * @param task the task of the executor which solves the problem. Cancelled together with this future.
+     */
+    void setTask(CompletableFuture<?> task) {
+        this.task = task;
+        if (isCancelled()) {
+            task.cancel(false);
+        }
+    }
+
+    boolean isStopRequested() {
+        return this.stopRequested;
+    }
+
+    /**
+     * Stops the solve at the next iteration. The future is then completed with the solution at the latest iterate.
+     */
+    public void requestStop() {
+        this.stopRequested = true;
+    }
+
+    /**
+     * Completes the future with a CancellationException. A solve which has not started yet is not started.
+     * The result is discarded. Use {@link #requestStop()} to retrieve the latest iterate instead.
+     *
+     * @param mayInterruptIfRunning true to stop a running solve at the next iteration, false to let it finish.
+     *                              The solving thread itself is never interrupted.
+     * @return true if the future was cancelled by this call
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (mayInterruptIfRunning) {
+            this.stopRequested = true;
+        }
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        CompletableFuture<?> current = this.task;
+        if (current != null) {
+            current.cancel(false);
+        }
+        return cancelled;
+    }
+}
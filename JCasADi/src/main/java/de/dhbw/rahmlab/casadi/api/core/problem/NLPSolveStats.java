@@ -0,0 +1,130 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.impl.core__;
+import de.dhbw.rahmlab.casadi.impl.std.Dict;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed statistics of a solve. Read natively from the statistics of the solver in a single call.
+ * Values not reported by the solver plugin are NaN, missing counts are -1.
+ *
+ * @param success       whether the solver reported success
+ * @param returnStatus  the return status of the solver, empty if not reported
+ * @param iterations    the number of iterations
+ * @param wallTimeTotal the total wall-clock time of the solve in seconds
+ * @param procTimeTotal the total processor time of the solve in seconds
+ * @param callsTotal    the number of calls of the solver
+ * @param oracles       the statistics of the functions evaluated by the solver, e.g. nlp_f, nlp_grad_f, nlp_jac_g
+ */
+public record NLPSolveStats(boolean success, String returnStatus, long iterations, double wallTimeTotal,
+                            double procTimeTotal, long callsTotal, Map<String, OracleStats> oracles) {
+
+    /**
+     * Statistics of a single function evaluated by the solver.
+     *
+     * @param calls    the number of calls
+     * @param wallTime the wall-clock time of all calls in seconds
+     * @param procTime the processor time of all calls in seconds
+     */
+    public record OracleStats(long calls, double wallTime, double procTime) {
+
+    }
+
+    /**
+     * Reads the statistics of a solve.
+     *
+     * @param stats the statistics returned by the solver
+     * @return the typed statistics
+     */
+    public static NLPSolveStats of(Dict stats) {
+        double[] values = new double[5 + 3 * stats.size()];
+        String[] names = core__.flatten_solve_stats(stats, values).split("\n", -1);
+
+        Map<String, OracleStats> oracles = new LinkedHashMap<>();
+        for (int i = 1; i < names.length; ++i) {
+            int offset = 5 + 3 * (i - 1);
+            oracles.put(names[i], new OracleStats(toCount(values[offset]), values[offset + 1], values[offset + 2]));
+        }
+        return new NLPSolveStats(
+                values[0] == 1,
+                names[0],
+                toCount(values[1]),
+                values[2],
+                values[3],
+                toCount(values[4]),
+                Collections.unmodifiableMap(oracles));
+    }
+
+    /**
+     * Reads the statistics of a solve.
+     *
+     * @param stats the statistics returned by the solver
+     * @return the typed statistics
+     */
+    public static NLPSolveStats of(Dictionary stats) {
+        return of(stats.getCasADiObject());
+    }
+
+    private static long toCount(double value) {
+        return Double.isNaN(value) ? -1 : (long) value;
+    }
+
+    /**
+     * Retrieves the total wall-clock time of the solve.
+     *
+     * @return the wall-clock time, zero if not reported
+     */
+    public Duration wallTime() {
+        return toDuration(this.wallTimeTotal);
+    }
+
+    /**
+     * Retrieves the total processor time of the solve.
+     *
+     * @return the processor time, zero if not reported
+     */
+    public Duration procTime() {
+        return toDuration(this.procTimeTotal);
+    }
+
+    private static Duration toDuration(double seconds) {
+        return Double.isNaN(seconds) ? Duration.ZERO : Duration.ofNanos(Math.round(seconds * 1e9));
+    }
+
+    /**
+     * Exports the statistics as metrics named {@code <prefix>.<metric>}.
+     * The solve is counted as {@code solves} and {@code failures}, the iterations as gauge {@code iterations},
+     * the total times as timers {@code wall_time} and {@code proc_time}. For each oracle, the calls are counted as
+     * {@code <oracle>.calls} and its wall-clock time is recorded as timer {@code <oracle>.wall_time}.
+     *
+     * @param sink   the receiver of the metrics
+     * @param prefix the prefix of all metric names
+     */
+    public void exportTo(MetricsSink sink, String prefix) {
+        sink.count(prefix + ".solves", 1);
+        sink.count(prefix + ".failures", this.success ? 0 : 1);
+        if (this.iterations >= 0) {
+            sink.gauge(prefix + ".iterations", this.iterations);
+        }
+        if (!Double.isNaN(this.wallTimeTotal)) {
+            sink.time(prefix + ".wall_time", wallTime());
+        }
+        if (!Double.isNaN(this.procTimeTotal)) {
+            sink.time(prefix + ".proc_time", procTime());
+        }
+        for (Map.Entry<String, OracleStats> entry : this.oracles.entrySet()) {
+            OracleStats oracle = entry.getValue();
+            if (oracle.calls() >= 0) {
+                sink.count(prefix + "." + entry.getKey() + ".calls", oracle.calls());
+            }
+            if (!Double.isNaN(oracle.wallTime())) {
+                sink.time(prefix + "." + entry.getKey() + ".wall_time", toDuration(oracle.wallTime()));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+/**
+ * Thrown when a solve was stopped by an {@link IterationListener}.
+ * The solution at the latest iterate is available via {@link #getLatestResult()}.
+ */
+public class NLPStoppedException extends RuntimeException {
+
+    private final IterationInfo lastIteration;
+    private final NLPResult latestResult;
+
+    public NLPStoppedException(IterationInfo lastIteration, NLPResult latestResult, Throwable cause) {
+        super("The solve was stopped after iteration " + lastIteration.iteration() + ".", cause);
+        this.lastIteration = lastIteration;
+        this.latestResult = latestResult;
+    }
+
+    /**
+     * Retrieves the progress of the solver in the iteration it was stopped.
+     *
+     * @return the last iteration
+     */
+    public IterationInfo getLastIteration() {
+        return this.lastIteration;
+    }
+
+    /**
+     * Retrieves the solution at the latest iterate. Its statistics report no success.
+     *
+     * @return the latest iterate
+     */
+    public NLPResult getLatestResult() {
+        return this.latestResult;
+    }
+}
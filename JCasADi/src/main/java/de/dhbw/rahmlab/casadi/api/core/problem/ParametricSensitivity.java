@@ -0,0 +1,141 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.utils.ConcatenationUtils;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.MapStringToDMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.index.IndexSlice;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVectorCollection;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import de.dhbw.rahmlab.casadi.impl.casadi.Opti;
+
+/**
+ * Derivatives dx/dp of the solution of an NLPProblem with respect to its parameters, computed from the KKT system
+ * at the solution instead of by re-solving with perturbed parameters.
+ *
+ * With the Lagrangian L = f + lam_g' g and the active constraints g_A(x, p) = b_A(p), where b_A is the bound
+ * lbg or ubg each row is active at, the implicit function theorem gives
+ * <pre>
+ * [ H    J_A' ] [ dx/dp     ]     [ d(grad L)/dp          ]
+ * [ J_A  0    ] [ dlam_A/dp ] = - [ d(g_A)/dp - d(b_A)/dp ]
+ * </pre>
+ * where H is the Hessian of L and J_A the Jacobian of g_A with respect to x. Inactive inequality constraints keep
+ * a multiplier of zero. Their rows are replaced by dlam_i/dp = 0, so all constraints keep their position:
+ * <pre>
+ * [ H        J'  ]
+ * [ D_A J    D_I ]
+ * </pre>
+ * with the diagonal indicator matrices D_A of the active and D_I of the inactive constraints.
+ * The KKT matrix and the right hand side are built symbolically with their sparsity and solved sparsely for all
+ * parameter columns at once. The factorization of the solver is not available through nlpsol and is not reused.
+ *
+ * The values of x, lam_g, p, lbg and ubg are those of the solve which produced the result, also if it was solved
+ * by the QP fast path, so later changes of the parameter values do not affect the result. Only the latest result of
+ * a problem is accepted, because Opti keeps the solver state of the latest solve only.
+ *
+ * Valid if the solution is a strict local minimum with linearly independent active constraints and strict
+ * complementarity. Otherwise, the KKT matrix is singular and the result contains non-finite values.
+ */
+final class ParametricSensitivity {
+
+    /**
+     * Inequality constraints whose multiplier has a magnitude below this value are considered inactive.
+     */
+    private static final double ACTIVE_TOLERANCE = 1e-9;
+
+    /**
+     * Sparse linear solver for the KKT matrix, which is not symmetric due to the rows of inactive constraints.
+     */
+    private static final String LINEAR_SOLVER = "qr";
+
+    private ParametricSensitivity() {
+    }
+
+    /**
+     * Computes the sensitivities of the latest solution of the problem.
+     *
+     * @param result     the latest solution of the problem
+     * @param parameters the parameters to differentiate with respect to
+     * @return a sparse DMWrapper with one row per element of the stacked decision variables and one column per
+     *         element of the parameters, in the order of the parameters
+     * @throws IllegalStateException if the problem was solved again after the result
+     */
+    static DMWrapper compute(NLPResult result, MXWrapper... parameters) {
+        if (parameters.length == 0) {
+            throw new IllegalArgumentException("At least one parameter is required.");
+        }
+        result.checkLatest();
+        Opti opti = result.getCasADiObject().opti();
+
+        // Inputs and results of the solve, also set by the QP fast path.
+        MapStringToDMWrapper arg = result.solveArguments();
+        MapStringToDMWrapper res = new MapStringToDMWrapper(opti.advanced().res());
+        DMWrapper xValue = res.get("x");
+        DMWrapper lamValue = res.get("lam_g");
+        DMWrapper pValue = arg.get("p");
+        double[] lbg = arg.get("lbg").densify().toArray();
+        double[] ubg = arg.get("ubg").densify().toArray();
+        double[] lamG = lamValue.densify().toArray();
+
+        // A negative multiplier belongs to the lower bound.
+        final int m = lamG.length;
+        double[] atLower = new double[m];
+        double[] atUpper = new double[m];
+        double[] inactive = new double[m];
+        for (int i = 0; i < m; ++i) {
+            if (lbg[i] == ubg[i] || lamG[i] < -ACTIVE_TOLERANCE) {
+                atLower[i] = 1.0;
+            } else if (lamG[i] > ACTIVE_TOLERANCE) {
+                atUpper[i] = 1.0;
+            } else {
+                inactive[i] = 1.0;
+            }
+        }
+        MXWrapper dLower = diagonal(atLower);
+        MXWrapper dUpper = diagonal(atUpper);
+        MXWrapper dActive = dLower.add(dUpper);
+        MXWrapper dInactive = diagonal(inactive);
+
+        MXWrapper x = new MXWrapper(opti.x());
+        MXWrapper p = new MXWrapper(opti.p());
+        MXWrapper lam = new MXWrapper(opti.lam_g());
+        MXWrapper g = new MXWrapper(opti.g());
+        MXWrapper gradL = new MXWrapper(opti.f()).add(lam.dot(g)).gradient(x);
+        // Zero for active constraints at the solution, for all p.
+        MXWrapper activeResidual = g
+                .subtract(dLower.mtimes(new MXWrapper(opti.lbg())))
+                .subtract(dUpper.mtimes(new MXWrapper(opti.ubg())));
+
+        MXWrapper jacobian = g.jacobian(x);
+        MXWrapper kktMatrix = ConcatenationUtils.blockcat(new MXVectorCollection(
+                new MXVector(gradL.jacobian(x), jacobian.T()),
+                new MXVector(dActive.mtimes(jacobian), dInactive)));
+
+        MXWrapper[] rhsColumns = new MXWrapper[parameters.length];
+        for (int k = 0; k < parameters.length; ++k) {
+            rhsColumns[k] = ConcatenationUtils.vertcat(
+                    gradL.jacobian(parameters[k]),
+                    dActive.mtimes(activeResidual.jacobian(parameters[k])));
+        }
+        MXWrapper rhs = ConcatenationUtils.horzcat(rhsColumns);
+
+        FunctionWrapper kkt = new FunctionWrapper("kkt_system", new MXVector(x, p, lam), new MXVector(kktMatrix, rhs));
+        DMVector values = kkt.call(xValue, pValue, lamValue);
+
+        DMWrapper solution = values.get(0).solve(values.get(1), LINEAR_SOLVER, new Dictionary());
+        // Only the primal part.
+        long n = xValue.numel();
+        return solution.get(false, new IndexSlice(0L, n, 1L), new IndexSlice()).negate().sparsify();
+    }
+
+    /**
+     * @param indicator the diagonal, zeros are not stored
+     * @return a constant sparse diagonal matrix
+     */
+    private static MXWrapper diagonal(double[] indicator) {
+        return new MXWrapper(new DMWrapper(indicator).diag().sparsify());
+    }
+}
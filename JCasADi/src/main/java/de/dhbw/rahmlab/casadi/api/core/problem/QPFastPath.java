@@ -0,0 +1,154 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.DmStatic;
+import de.dhbw.rahmlab.casadi.api.core.solver.CasADiSolver;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.CoreWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.MapStringToDMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.sparsity.MapStringToSparsity;
+import de.dhbw.rahmlab.casadi.impl.casadi.Opti;
+import de.dhbw.rahmlab.casadi.impl.casadi.OptiAdvanced;
+import de.dhbw.rahmlab.casadi.impl.casadi.VariableType;
+
+/**
+ * Solves an NLPProblem whose objective is quadratic and whose constraints are linear in the decision variables
+ * directly with a conic solver, bypassing nlpsol.
+ *
+ * When the problem is baked, the structure is detected once. If it is a QP, the coefficients
+ * f = 1/2 x' H x + q' x + c and g = A x + b are extracted symbolically as functions of the parameters, and the
+ * conic solver is created for the sparsity patterns of H and A. Afterwards, every solve only evaluates the
+ * coefficients for the current parameter values and calls the conic solver. The problem is re-baked only if it
+ * was changed structurally.
+ *
+ * The solution is handed to the Opti, so that {@link NLPResult} works as after a regular solve. Only the statistics
+ * are those of the conic solver, which the NLPResult carries itself.
+ */
+final class QPFastPath {
+
+    private final Opti opti;
+    private final CasADiSolver solverType;
+    private final Dictionary options;
+
+    private boolean detected;
+    private boolean applicable;
+
+    // p -> H, q, c, A, b, lbg, ubg
+    private FunctionWrapper coefficients;
+    private FunctionWrapper solver;
+    private Dictionary statistics;
+
+    QPFastPath(Opti opti, CasADiSolver solverType, Dictionary options) {
+        this.opti = opti;
+        this.solverType = solverType;
+        this.options = options;
+    }
+
+    /**
+     * Detects the structure of the problem, if it was changed since the latest detection.
+     *
+     * @return true if the problem is a QP and can be solved by this fast path.
+     */
+    boolean isApplicable() {
+        OptiAdvanced advanced = this.opti.advanced();
+        if (advanced.problem_dirty() || !this.detected) {
+            advanced.bake();
+            detect();
+        }
+        return this.applicable;
+    }
+
+    private void detect() {
+        this.detected = true;
+        this.applicable = false;
+        this.coefficients = null;
+        this.solver = null;
+
+        MXWrapper x = new MXWrapper(this.opti.x());
+        MXWrapper p = new MXWrapper(this.opti.p());
+        MXWrapper f = new MXWrapper(this.opti.f());
+        MXWrapper g = new MXWrapper(this.opti.g());
+        if (!f.isQuadratic(x) || !g.isLinear(x)) {
+            return;
+        }
+
+        MXWrapper h = new MXWrapper();
+        MXWrapper q = new MXWrapper();
+        MXWrapper c = new MXWrapper();
+        f.quadraticCoeff(x, h, q, c, false);
+        MXWrapper a = new MXWrapper();
+        MXWrapper b = new MXWrapper();
+        g.linearCoeff(x, a, b, false);
+
+        this.coefficients = new FunctionWrapper("qp_coefficients",
+                new MXVector(p),
+                new MXVector(h, q, c, a, b, new MXWrapper(this.opti.lbg()), new MXWrapper(this.opti.ubg())));
+
+        MapStringToSparsity structure = new MapStringToSparsity();
+        structure.put("h", h.getSparsity().getCasADiObject());
+        structure.put("a", a.getSparsity().getCasADiObject());
+        this.solver = CoreWrapper.conic("qp_solver", this.solverType.getSolverName(), structure, this.options);
+        this.applicable = true;
+    }
+
+    /**
+     * Solves the QP for the current parameter values and initial guess of the problem.
+     *
+     * @param acceptLimits whether an unsuccessful solve is accepted.
+     * @return an NLPResult representing the solution.
+     * @throws IllegalStateException if the conic solver failed and limits are not accepted.
+     */
+    NLPResult solve(boolean acceptLimits) {
+        OptiAdvanced advanced = this.opti.advanced();
+        DMWrapper p = new DMWrapper(DmStatic.veccat(advanced.active_values(VariableType.OPTI_PAR)));
+        DMWrapper x0 = new DMWrapper(DmStatic.veccat(advanced.active_values(VariableType.OPTI_VAR)));
+
+        DMVector coeff = this.coefficients.call(new DMVector(p));
+        DMWrapper b = coeff.get(4);
+
+        MapStringToDMWrapper arg = new MapStringToDMWrapper();
+        arg.put("h", coeff.get(0));
+        arg.put("g", coeff.get(1));
+        arg.put("a", coeff.get(3));
+        arg.put("lba", coeff.get(5).subtract(b));
+        arg.put("uba", coeff.get(6).subtract(b));
+        arg.put("x0", x0);
+        MapStringToDMWrapper res = this.solver.call(arg);
+        this.statistics = this.solver.getStatistics();
+
+        NLPSolveStats stats = NLPSolveStats.of(this.statistics);
+        if (!stats.success() && !acceptLimits) {
+            throw new IllegalStateException("The QP solver failed with return status "
+                    + stats.returnStatus() + ".");
+        }
+
+        DMWrapper x = res.get("x");
+        MapStringToDMWrapper solution = new MapStringToDMWrapper();
+        solution.put("x", x);
+        solution.put("f", res.get("cost").add(coeff.get(2)));
+        solution.put("g", coeff.get(3).mtimes(x).add(b));
+        solution.put("lam_x", res.get("lam_x"));
+        solution.put("lam_g", res.get("lam_a"));
+        advanced.res(solution.getCasADiObject());
+
+        // Opti keeps the arguments of its latest nlpsol call, so they are passed along for the sensitivities.
+        MapStringToDMWrapper arguments = new MapStringToDMWrapper();
+        arguments.put("p", p);
+        arguments.put("lbg", coeff.get(5));
+        arguments.put("ubg", coeff.get(6));
+        return new NLPResult(this.opti.latest_solution(), this.statistics, arguments);
+    }
+
+    /**
+     * Retrieves the statistics of the latest solve of the conic solver.
+     *
+     * @return a Dictionary representing the statistics or null if not solved yet.
+     */
+    Dictionary getStatistics() {
+        return this.statistics;
+    }
+}
@@ -0,0 +1,194 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import de.dhbw.rahmlab.casadi.impl.casadi.MX;
+import de.dhbw.rahmlab.casadi.impl.casadi.Opti;
+import de.dhbw.rahmlab.casadi.impl.casadi.VariableType;
+import de.dhbw.rahmlab.casadi.impl.std.StdVectorMX;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Positions of the decision variables of an NLPProblem within the stacked vector of all decision variables,
+ * as filled by {@link NLPResult#valuesInto(double[])}. Allows to slice results without further native calls.
+ * Each variable is stored in column-major order.
+ *
+ * Only variables which occur in the objective or the constraints are part of the stacked vector.
+ * Variables are identified by their expression node, i.e. the MXWrapper returned by
+ * {@link NLPProblem#addVariable(long, long)} or a copy of it.
+ */
+public final class ResultLayout {
+
+    /**
+     * Position and shape of a single variable.
+     *
+     * @param offset  the index of the first element within the stacked vector
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     */
+    public record Block(int offset, int rows, int columns) {
+
+        /**
+         * Retrieves the number of elements.
+         *
+         * @return rows * columns
+         */
+        public int size() {
+            return this.rows * this.columns;
+        }
+    }
+
+    private final Map<Long, Block> blocks;
+    private final int size;
+
+    private ResultLayout(Map<Long, Block> blocks, int size) {
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    /**
+     * Reads the layout of a baked problem.
+     *
+     * @param opti the problem, solved or baked
+     * @return the layout of its decision variables
+     */
+    static ResultLayout of(Opti opti) {
+        StdVectorMX variables = opti.advanced().active_symvar(VariableType.OPTI_VAR);
+        int count = variables.size();
+        long[] nodeHashes = new long[count];
+        int[] rows = new int[count];
+        int[] columns = new int[count];
+        for (int i = 0; i < count; ++i) {
+            MX variable = variables.get(i);
+            nodeHashes[i] = variable.node_hash();
+            rows[i] = (int) variable.size1();
+            columns[i] = (int) variable.size2();
+        }
+        return of(nodeHashes, rows, columns);
+    }
+
+    /**
+     * Stacks the variables in the given order.
+     *
+     * @param nodeHashes the node hashes of the variables
+     * @param rows       the number of rows of each variable
+     * @param columns    the number of columns of each variable
+     * @return the layout of the variables
+     */
+    static ResultLayout of(long[] nodeHashes, int[] rows, int[] columns) {
+        Map<Long, Block> blocks = new HashMap<>();
+        int offset = 0;
+        for (int i = 0; i < nodeHashes.length; ++i) {
+            Block block = new Block(offset, rows[i], columns[i]);
+            blocks.put(nodeHashes[i], block);
+            offset += block.size();
+        }
+        return new ResultLayout(blocks, offset);
+    }
+
+    /**
+     * Retrieves the position and shape of a variable.
+     *
+     * @param variable the decision variable
+     * @return the block of the variable
+     * @throws IllegalArgumentException if the variable is not part of the stacked vector
+     */
+    public Block get(MXWrapper variable) {
+        return get(variable.getCasADiObject().node_hash());
+    }
+
+    Block get(long nodeHash) {
+        Block block = this.blocks.get(nodeHash);
+        if (block == null) {
+            throw new IllegalArgumentException("The expression is not an active decision variable of the problem.");
+        }
+        return block;
+    }
+
+    /**
+     * Checks whether a variable is part of the stacked vector.
+     *
+     * @param variable the decision variable
+     * @return true if the layout contains the variable
+     */
+    public boolean contains(MXWrapper variable) {
+        return this.blocks.containsKey(variable.getCasADiObject().node_hash());
+    }
+
+    /**
+     * Copies the values of a variable out of the stacked vector.
+     *
+     * @param values   the stacked vector
+     * @param variable the decision variable
+     * @return the values of the variable in column-major order
+     */
+    public double[] slice(double[] values, MXWrapper variable) {
+        Block block = get(variable);
+        double[] slice = new double[block.size()];
+        sliceInto(values, block, slice, 0);
+        return slice;
+    }
+
+    /**
+     * Copies the values of a variable out of the stacked vector.
+     *
+     * @param values    the stacked vector
+     * @param variable  the decision variable
+     * @param dst       receives the values of the variable in column-major order
+     * @param dstOffset the index in dst of the first value
+     */
+    public void sliceInto(double[] values, MXWrapper variable, double[] dst, int dstOffset) {
+        sliceInto(values, get(variable), dst, dstOffset);
+    }
+
+    void sliceInto(double[] values, Block block, double[] dst, int dstOffset) {
+        checkLength(values);
+        System.arraycopy(values, block.offset(), dst, dstOffset, block.size());
+    }
+
+    /**
+     * Retrieves a single element of a variable out of the stacked vector.
+     *
+     * @param values   the stacked vector
+     * @param variable the decision variable
+     * @param row      the row within the variable
+     * @param column   the column within the variable
+     * @return the value of the element
+     */
+    public double get(double[] values, MXWrapper variable, int row, int column) {
+        return get(values, get(variable), row, column);
+    }
+
+    double get(double[] values, Block block, int row, int column) {
+        checkLength(values);
+        Objects.checkIndex(row, block.rows());
+        Objects.checkIndex(column, block.columns());
+        return values[block.offset() + column * block.rows() + row];
+    }
+
+    private void checkLength(double[] values) {
+        if (values.length < this.size) {
+            throw new IllegalArgumentException("Expected at least " + this.size + " values, but got " + values.length + ".");
+        }
+    }
+
+    /**
+     * Retrieves the length of the stacked vector.
+     *
+     * @return the number of elements of all active decision variables
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Retrieves the number of active decision variables.
+     *
+     * @return the number of blocks
+     */
+    public int getNumberOfVariables() {
+        return this.blocks.size();
+    }
+}
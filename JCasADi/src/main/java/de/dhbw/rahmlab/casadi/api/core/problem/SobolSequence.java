@@ -0,0 +1,91 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+/**
+ * Sobol sequence in the unit cube, generated in Gray code order with 32 bit direction numbers.
+ * The direction numbers are the ones of Joe and Kuo (new-joe-kuo-6.21201) for the first dimensions.
+ */
+final class SobolSequence {
+
+    private static final int BITS = 32;
+
+    /**
+     * Per dimension from the second on: degree s, coefficients a and initial direction numbers m of the primitive
+     * polynomial.
+     */
+    private static final int[][] PARAMETERS = {
+        {1, 0, 1},
+        {2, 1, 1, 3},
+        {3, 1, 1, 3, 1},
+        {3, 2, 1, 1, 1},
+        {4, 1, 1, 1, 3, 3},
+        {4, 4, 1, 3, 5, 13},
+        {5, 2, 1, 1, 5, 5, 17},
+        {5, 4, 1, 1, 5, 5, 5},
+        {5, 7, 1, 1, 7, 11, 19},
+        {5, 11, 1, 1, 5, 1, 1},
+        {5, 13, 1, 1, 1, 3, 11},
+        {5, 14, 1, 3, 5, 5, 31},
+        {6, 1, 1, 3, 3, 9, 7, 49},
+        {6, 13, 1, 1, 1, 15, 21, 21},
+        {6, 16, 1, 3, 1, 13, 27, 49},
+        {6, 19, 1, 1, 1, 15, 7, 5},
+        {6, 22, 1, 3, 1, 15, 13, 25},
+        {6, 25, 1, 1, 5, 5, 19, 61},
+        {7, 1, 1, 3, 7, 11, 23, 15, 103},
+        {7, 4, 1, 3, 7, 13, 13, 15, 69}
+    };
+
+    static final int MAX_DIMENSION = PARAMETERS.length + 1;
+
+    // directions[d][k] for bit k, as unsigned 32 bit values.
+    private final long[][] directions;
+    private final long[] point;
+    private long index;
+
+    SobolSequence(int dimension) {
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            throw new IllegalArgumentException("The Sobol sequence supports 1 to " + MAX_DIMENSION
+                    + " dimensions, but got " + dimension + ". Use a Latin hypercube instead.");
+        }
+        this.directions = new long[dimension][BITS];
+        for (int k = 0; k < BITS; ++k) {
+            this.directions[0][k] = 1L << (BITS - 1 - k);
+        }
+        for (int d = 1; d < dimension; ++d) {
+            int[] parameters = PARAMETERS[d - 1];
+            int s = parameters[0];
+            int a = parameters[1];
+            long[] v = this.directions[d];
+            for (int k = 0; k < Math.min(s, BITS); ++k) {
+                v[k] = ((long) parameters[2 + k]) << (BITS - 1 - k);
+            }
+            for (int k = s; k < BITS; ++k) {
+                v[k] = v[k - s] ^ (v[k - s] >>> s);
+                for (int j = 1; j < s; ++j) {
+                    v[k] ^= ((a >>> (s - 1 - j)) & 1) * v[k - j];
+                }
+            }
+        }
+        this.point = new long[dimension];
+    }
+
+    /**
+     * Advances to the next point. The first point returned is the one after the origin.
+     *
+     * @return a new array with the coordinates of the point in [0, 1)
+     */
+    double[] next() {
+        // Position of the lowest zero bit of the current index.
+        int c = Long.numberOfTrailingZeros(~this.index);
+        if (c >= BITS) {
+            throw new IllegalStateException("The Sobol sequence is exhausted.");
+        }
+        ++this.index;
+        double[] coordinates = new double[this.point.length];
+        for (int d = 0; d < this.point.length; ++d) {
+            this.point[d] ^= this.directions[d][c];
+            coordinates[d] = this.point[d] / (double) (1L << BITS);
+        }
+        return coordinates;
+    }
+}
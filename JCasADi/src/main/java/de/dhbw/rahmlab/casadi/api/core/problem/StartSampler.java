@@ -0,0 +1,94 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import java.util.Random;
+
+/**
+ * Generates initial guesses for {@link NLPMultiStart} within a box.
+ */
+@FunctionalInterface
+public interface StartSampler {
+
+    /**
+     * Generates initial guesses.
+     *
+     * @param count the number of initial guesses
+     * @param lower the lower bounds of the box, one per element of the stacked decision variables
+     * @param upper the upper bounds of the box, one per element of the stacked decision variables
+     * @return count initial guesses, each of the length of the bounds
+     */
+    double[][] sample(int count, double[] lower, double[] upper);
+
+    /**
+     * Independent uniformly distributed samples.
+     *
+     * @param seed the seed of the random number generator
+     * @return a reproducible StartSampler
+     */
+    static StartSampler uniform(long seed) {
+        return (count, lower, upper) -> {
+            Random random = new Random(seed);
+            double[][] samples = new double[count][lower.length];
+            for (double[] sample : samples) {
+                for (int d = 0; d < lower.length; ++d) {
+                    sample[d] = scale(random.nextDouble(), lower[d], upper[d]);
+                }
+            }
+            return samples;
+        };
+    }
+
+    /**
+     * Latin hypercube samples: in every dimension, each of the count equally sized strata contains exactly one sample.
+     *
+     * @param seed the seed of the random number generator
+     * @return a reproducible StartSampler
+     */
+    static StartSampler latinHypercube(long seed) {
+        return (count, lower, upper) -> {
+            Random random = new Random(seed);
+            double[][] samples = new double[count][lower.length];
+            int[] strata = new int[count];
+            for (int d = 0; d < lower.length; ++d) {
+                for (int i = 0; i < count; ++i) {
+                    strata[i] = i;
+                }
+                for (int i = count - 1; i > 0; --i) {
+                    int j = random.nextInt(i + 1);
+                    int swap = strata[i];
+                    strata[i] = strata[j];
+                    strata[j] = swap;
+                }
+                for (int i = 0; i < count; ++i) {
+                    samples[i][d] = scale((strata[i] + random.nextDouble()) / count, lower[d], upper[d]);
+                }
+            }
+            return samples;
+        };
+    }
+
+    /**
+     * Points of the Sobol low-discrepancy sequence, skipping the origin.
+     * Supports up to 21 dimensions.
+     *
+     * @return a deterministic StartSampler
+     * @throws IllegalArgumentException on sampling, if there are too many dimensions
+     */
+    static StartSampler sobol() {
+        return (count, lower, upper) -> {
+            SobolSequence sequence = new SobolSequence(lower.length);
+            double[][] samples = new double[count][];
+            for (int i = 0; i < count; ++i) {
+                double[] sample = sequence.next();
+                for (int d = 0; d < lower.length; ++d) {
+                    sample[d] = scale(sample[d], lower[d], upper[d]);
+                }
+                samples[i] = sample;
+            }
+            return samples;
+        };
+    }
+
+    private static double scale(double unit, double lower, double upper) {
+        return lower + unit * (upper - lower);
+    }
+}
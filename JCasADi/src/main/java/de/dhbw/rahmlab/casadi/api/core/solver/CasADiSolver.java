@@ -48,6 +48,18 @@ public enum CasADiSolver {
      */
     PROXQP("PROXQP"),
 
+    /**
+     * HPIPM: High-performance interior point method for QP problems.
+     * Exploits the stage-wise structure of optimal control problems.
+     */
+    HPIPM("hpipm"),
+
+    /**
+     * DAQP: Dual active-set solver for small and medium-sized dense QP problems.
+     * Suitable for embedded model predictive control.
+     */
+    DAQP("daqp"),
+
     /**
      * CPLEX: IBM CPLEX solver for linear programming (LP) and mixed-integer programming (MIP) problems.
      * Often used in industrial applications requiring high performance.
@@ -2,6 +2,8 @@ package de.dhbw.rahmlab.casadi.api.core.wrapper.bool;
 
 import de.dhbw.rahmlab.casadi.impl.std.StdVectorBool;
 
+import java.util.Objects;
+
 /**
  * A collection that holds a vector of boolean values (StdVectorBool) {@link StdVectorBool}
  * and provides methods to manipulate and access its elements.
@@ -23,7 +25,8 @@ public class BooleanVector {
      * @param initialElements an array of boolean values to initialize the collection
      */
     public BooleanVector(boolean[] initialElements) {
-        this.stdVectorBool = new StdVectorBool(initialElements);
+        this.stdVectorBool = new StdVectorBool();
+        this.stdVectorBool.assign_array(initialElements, 0, initialElements.length);
     }
 
     /**
@@ -85,6 +88,39 @@ public class BooleanVector {
         return this.stdVectorBool.get(index);
     }
 
+    /**
+     * Retrieves the boolean value at the specified index without boxing.
+     *
+     * @param index the index of the boolean value to retrieve
+     * @return the boolean value at the specified index
+     */
+    public boolean getBoolean(int index) {
+        Objects.checkIndex(index, size());
+        return this.stdVectorBool.get_value(index);
+    }
+
+    /**
+     * Copies all boolean values into an array in a single native call.
+     *
+     * @param dst the array to copy into, if it is large enough; otherwise, a new array is allocated
+     * @return the array containing all boolean values
+     */
+    public boolean[] toArray(boolean[] dst) {
+        int size = size();
+        boolean[] array = dst.length >= size ? dst : new boolean[size];
+        this.stdVectorBool.get_array(array, 0);
+        return array;
+    }
+
+    /**
+     * Replaces all boolean values with the values of the array in a single native call.
+     *
+     * @param src the new boolean values
+     */
+    public void assign(boolean[] src) {
+        this.stdVectorBool.assign_array(src, 0, src.length);
+    }
+
     /**
      * Sets the boolean value at the specified index and returns the previous value.
      *
@@ -4,6 +4,9 @@ import de.dhbw.rahmlab.casadi.impl.std.StdVectorDouble;
 
 import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
 
 /**
  * A collection that holds a vector of double values (StdVectorDouble) {@link StdVectorDouble}
@@ -26,7 +29,8 @@ public class DoubleVector extends AbstractList<Double> {
      * @param initialElements an array of double values to initialize the collection
      */
     public DoubleVector(double... initialElements) {
-        this.stdVectorDouble = new StdVectorDouble(initialElements);
+        this.stdVectorDouble = new StdVectorDouble();
+        this.stdVectorDouble.assign_array(initialElements, 0, initialElements.length);
     }
 
     /**
@@ -101,6 +105,71 @@ public class DoubleVector extends AbstractList<Double> {
         return this.stdVectorDouble.get(index);
     }
 
+    /**
+     * Retrieves the double value at the specified index without boxing.
+     *
+     * @param index the index of the double value to retrieve
+     * @return the double value at the specified index
+     */
+    public double getDouble(int index) {
+        Objects.checkIndex(index, size());
+        return this.stdVectorDouble.get_value(index);
+    }
+
+    /**
+     * Copies all double values into an array in a single native call.
+     *
+     * @param dst the array to copy into, if it is large enough; otherwise, a new array is allocated
+     * @return the array containing all double values
+     */
+    public double[] toArray(double[] dst) {
+        int size = size();
+        double[] array = dst.length >= size ? dst : new double[size];
+        this.stdVectorDouble.get_array(array, 0);
+        return array;
+    }
+
+    /**
+     * Copies all double values into the array, starting at dst[offset].
+     *
+     * @param dst the array to copy into
+     * @param offset the index of dst to start at
+     */
+    public void copyInto(double[] dst, int offset) {
+        Objects.checkFromIndexSize(offset, size(), dst.length);
+        this.stdVectorDouble.get_array(dst, offset);
+    }
+
+    /**
+     * Replaces all double values with the values of the array in a single native call.
+     *
+     * @param src the new double values
+     */
+    public void assign(double[] src) {
+        this.stdVectorDouble.assign_array(src, 0, src.length);
+    }
+
+    /**
+     * Performs the action for each double value without boxing.
+     *
+     * @param action the action to be performed for each double value
+     */
+    public void forEachDouble(DoubleConsumer action) {
+        for (double value : toArray(new double[0])) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Returns a DoubleStream over a snapshot of the double values.
+     * Named differently from stream(), which returns a Stream of boxed values.
+     *
+     * @return a DoubleStream of the double values
+     */
+    public DoubleStream doubleStream() {
+        return Arrays.stream(toArray(new double[0]));
+    }
+
     /**
      * Sets the double value at the specified index and returns the previous value.
      *
@@ -1,11 +1,13 @@
 package de.dhbw.rahmlab.casadi.api.core.wrapper.dbl;
 
 import de.dhbw.rahmlab.casadi.api.core.interfaces.Collection;
+import de.dhbw.rahmlab.casadi.impl.std.StdVectorDouble;
 import de.dhbw.rahmlab.casadi.impl.std.StdVectorVectorDouble;
 
 import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -49,6 +51,21 @@ public class DoubleVectorCollection extends AbstractList<DoubleVector> implement
         );
     }
 
+    /**
+     * Constructs a DoubleVectorCollection with one DoubleVector per row, each copied in a single native call.
+     *
+     * @param rows the double values of the DoubleVector elements
+     */
+    public DoubleVectorCollection(double[][] rows) {
+        this.stdVectorVectorDouble = new StdVectorVectorDouble();
+        this.stdVectorVectorDouble.reserve(rows.length);
+        StdVectorDouble row = new StdVectorDouble();
+        for (double[] values : rows) {
+            row.assign_array(values, 0, values.length);
+            this.stdVectorVectorDouble.add(row);
+        }
+    }
+
     /**
      * Constructs a DoubleVectorCollection from an existing StdVectorVectorDouble instance.
      *
@@ -89,6 +106,46 @@ public class DoubleVectorCollection extends AbstractList<DoubleVector> implement
         return new DoubleVector(this.stdVectorVectorDouble.get(index));
     }
 
+    /**
+     * Retrieves a single double value without copying the DoubleVector containing it and without boxing.
+     *
+     * @param index the index of the DoubleVector
+     * @param innerIndex the index of the double value within the DoubleVector
+     * @return the double value at the specified position
+     */
+    public double getDouble(int index, int innerIndex) {
+        Objects.checkIndex(index, size());
+        StdVectorDouble inner = this.stdVectorVectorDouble.get(index);
+        Objects.checkIndex(innerIndex, inner.size());
+        return inner.get_value(innerIndex);
+    }
+
+    /**
+     * Copies all double values into one array per DoubleVector.
+     *
+     * @return the double values of each DoubleVector
+     */
+    public double[][] toArrays() {
+        double[][] rows = new double[size()][];
+        for (int i = 0; i < rows.length; ++i) {
+            StdVectorDouble inner = this.stdVectorVectorDouble.get(i);
+            rows[i] = new double[inner.size()];
+            inner.get_array(rows[i], 0);
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the double values of all DoubleVectors consecutively into a single array in a single native call.
+     *
+     * @return the concatenated double values
+     */
+    public double[] toFlatArray() {
+        double[] values = new double[Math.toIntExact(this.stdVectorVectorDouble.total_size())];
+        this.stdVectorVectorDouble.get_array(values, 0);
+        return values;
+    }
+
     /**
      * Sets the DoubleVector value at the specified index and returns the previous value.
      *
@@ -0,0 +1,212 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.dm;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.sparsity.SparsityWrapper;
+import de.dhbw.rahmlab.casadi.impl.casadi.DM;
+import de.dhbw.rahmlab.casadi.impl.casadi.Sparsity;
+import de.dhbw.rahmlab.casadi.impl.core__;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary file format for large DM and Sparsity data in compressed column storage (CCS).
+ * Unlike serialize(), the data is not converted to strings and not held on the Java heap.
+ *
+ * Files are written and read through memory mappings of a FileChannel. The native code copies the column offsets,
+ * row indices and nonzeros directly between the mapping and the CasADi objects, i.e. each array is copied once.
+ *
+ * <pre>
+ * Layout, all values in the native byte order of the writing platform:
+ *   0  8 bytes  magic "JCASCCS1"
+ *   8  long     byte order mark 0x0102030405060708
+ *  16  int      format version
+ *  20  int      content: 0 sparsity, 1 DM
+ *  24  long     number of rows
+ *  32  long     number of columns
+ *  40  long     number of nonzeros
+ *  48  16 bytes reserved
+ *  64  long[]   column offsets, columns + 1 elements
+ *      long[]   row indices, nonzeros elements
+ *      double[] nonzeros, only for content DM
+ * </pre>
+ * All arrays are 8-byte aligned. A single file is limited to 2 GiB.
+ */
+public final class CcsFile {
+
+    private static final byte[] MAGIC = "JCASCCS1".getBytes(StandardCharsets.US_ASCII);
+    private static final long BYTE_ORDER_MARK = 0x0102030405060708L;
+    private static final int VERSION = 1;
+    private static final int CONTENT_SPARSITY = 0;
+    private static final int CONTENT_DM = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private CcsFile() {
+    }
+
+    /**
+     * Writes a sparsity pattern. An existing file is replaced.
+     *
+     * @param file     the file to write
+     * @param sparsity the sparsity pattern
+     */
+    public static void write(Path file, SparsityWrapper sparsity) {
+        write(file, sparsity.getCasADiObject(), null);
+    }
+
+    /**
+     * Writes a DM including its sparsity pattern. An existing file is replaced.
+     *
+     * @param file the file to write
+     * @param dm   the matrix
+     */
+    public static void write(Path file, DMWrapper dm) {
+        write(file, dm.getCasADiObject().sparsity(), dm);
+    }
+
+    private static void write(Path file, Sparsity sparsity, DMWrapper dm) {
+        final long ncol = sparsity.size2();
+        final long nnz = sparsity.nnz();
+        final long rowOffset = HEADER_SIZE + Long.BYTES * (ncol + 1);
+        final long nonzerosOffset = rowOffset + Long.BYTES * nnz;
+        final long size = nonzerosOffset + (dm == null ? 0 : Double.BYTES * nnz);
+        checkSize(size);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.order(ByteOrder.nativeOrder());
+            map.put(MAGIC);
+            map.putLong(BYTE_ORDER_MARK);
+            map.putInt(VERSION);
+            map.putInt(dm == null ? CONTENT_SPARSITY : CONTENT_DM);
+            map.putLong(sparsity.size1());
+            map.putLong(ncol);
+            map.putLong(nnz);
+
+            core__.sparsity_to_ccs(sparsity,
+                    longs(map, HEADER_SIZE, ncol + 1),
+                    longs(map, rowOffset, nnz));
+            if (dm != null) {
+                dm.nonzerosInto(doubles(map, nonzerosOffset, nnz));
+            }
+            map.force();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Reads a sparsity pattern. For a file containing a DM, only its sparsity pattern is read.
+     *
+     * @param file the file to read
+     * @return the sparsity pattern
+     * @throws IllegalArgumentException if the file is not in this format or was written with another byte order
+     */
+    public static SparsityWrapper readSparsity(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = map(channel);
+            Header header = readHeader(map);
+            return new SparsityWrapper(sparsity(map, header));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Reads a DM. The nonzeros are copied once from the memory mapping into the DM.
+     *
+     * @param file the file to read
+     * @return the native DM
+     * @throws IllegalArgumentException if the file does not contain a DM in this format or was written with another
+     *                                  byte order
+     */
+    static DM readDM(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = map(channel);
+            Header header = readHeader(map);
+            if (header.content() != CONTENT_DM) {
+                throw new IllegalArgumentException(file + " contains only a sparsity pattern.");
+            }
+            Sparsity sparsity = sparsity(map, header);
+            return core__.dm_from_ccs(sparsity, doubles(map, header.nonzerosOffset(), header.nnz()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Header(int content, long nrow, long ncol, long nnz) {
+
+        long rowOffset() {
+            return HEADER_SIZE + Long.BYTES * (this.ncol + 1);
+        }
+
+        long nonzerosOffset() {
+            return rowOffset() + Long.BYTES * this.nnz;
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        checkSize(size);
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        map.order(ByteOrder.nativeOrder());
+        return map;
+    }
+
+    private static Header readHeader(MappedByteBuffer map) {
+        if (map.capacity() < HEADER_SIZE) {
+            throw new IllegalArgumentException("The file is too short for a header.");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        map.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("The file is not in the binary CCS format.");
+        }
+        if (map.getLong(8) != BYTE_ORDER_MARK) {
+            throw new IllegalArgumentException("The file was written with another byte order.");
+        }
+        int version = map.getInt(16);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported format version " + version + ".");
+        }
+        Header header = new Header(map.getInt(20), map.getLong(24), map.getLong(32), map.getLong(40));
+        long expected = header.content() == CONTENT_DM
+                ? header.nonzerosOffset() + Double.BYTES * header.nnz()
+                : header.nonzerosOffset();
+        if (header.nrow() < 0 || header.ncol() < 0 || header.nnz() < 0 || map.capacity() < expected) {
+            throw new IllegalArgumentException("The file is truncated or corrupt.");
+        }
+        return header;
+    }
+
+    private static Sparsity sparsity(MappedByteBuffer map, Header header) {
+        return core__.sparsity_from_ccs(header.nrow(), header.ncol(),
+                longs(map, HEADER_SIZE, header.ncol() + 1),
+                longs(map, header.rowOffset(), header.nnz()));
+    }
+
+    private static void checkSize(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The binary CCS format is limited to " + Integer.MAX_VALUE + " bytes per file.");
+        }
+    }
+
+    // slice(int, int) resets the byte order.
+    private static LongBuffer longs(ByteBuffer map, long offset, long count) {
+        return map.slice((int) offset, (int) (Long.BYTES * count)).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    private static DoubleBuffer doubles(ByteBuffer map, long offset, long count) {
+        return map.slice((int) offset, (int) (Double.BYTES * count)).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+}
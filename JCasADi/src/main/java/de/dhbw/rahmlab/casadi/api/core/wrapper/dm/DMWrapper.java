@@ -15,9 +15,16 @@ import de.dhbw.rahmlab.casadi.api.core.wrapper.sparsity.SparsityWrapper;
 import de.dhbw.rahmlab.casadi.api.core.wrapper.str.StringVector;
 import de.dhbw.rahmlab.casadi.impl.casadi.*;
 import de.dhbw.rahmlab.casadi.impl.std.StdVectorDouble;
+import de.dhbw.rahmlab.casadi.implUtil.WrapUtil;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class DMWrapper implements Wrapper<DMWrapper>, NumericValue {
 
@@ -32,6 +39,10 @@ public class DMWrapper implements Wrapper<DMWrapper>, NumericValue {
         this.dm = new DM(dm);
     }
 
+    private DMWrapper(DM dm, boolean copy) {
+        this.dm = copy ? new DM(dm) : dm;
+    }
+
     public DMWrapper(DMWrapper other) {
         this.dm = new DM(other.getCasADiObject());
     }
@@ -67,8 +78,7 @@ public class DMWrapper implements Wrapper<DMWrapper>, NumericValue {
     }
 
     public DMWrapper(double... x) {
-        DoubleVector vector = new DoubleVector(x);
-        this.dm = new DM(vector.getCasADiObject());
+        this.dm = DM.from_array(x, 0, x.length);
     }
 
     public DMWrapper(Double... x) {
@@ -856,6 +866,100 @@ public class DMWrapper implements Wrapper<DMWrapper>, NumericValue {
         return new DoubleVector(this.dm.nonzeros());
     }
 
+    /**
+     * Copies all nonzeros into dst, starting at dst[offset], in a single native call.
+     */
+    public void nonzerosInto(double[] dst, int offset) {
+        Objects.checkFromIndexSize(offset, (int) nnz(), dst.length);
+        this.dm.get_nonzeros_array(dst, offset);
+    }
+
+    /**
+     * Copies all nonzeros into dst at its position and advances the position.
+     */
+    public void nonzerosInto(DoubleBuffer dst) {
+        int nnz = (int) nnz();
+        int position = dst.position();
+        Objects.checkFromIndexSize(position, nnz, dst.limit());
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (isNativeDirect(dst)) {
+            this.dm.get_nonzeros_buffer(dst, position);
+        } else if (dst.hasArray()) {
+            this.dm.get_nonzeros_array(dst.array(), dst.arrayOffset() + position);
+        } else {
+            dst.put(toArray());
+            return;
+        }
+        dst.position(position + nnz);
+    }
+
+    /**
+     * Overwrites all nonzeros with src[offset] to src[offset + nnz() - 1]. The sparsity stays unchanged.
+     */
+    public void setNonzeros(double[] src, int offset) {
+        Objects.checkFromIndexSize(offset, (int) nnz(), src.length);
+        this.dm.set_nonzeros_array(src, offset);
+    }
+
+    /**
+     * Overwrites all nonzeros with the values of src at its position and advances the position. The sparsity stays unchanged.
+     */
+    public void setNonzeros(DoubleBuffer src) {
+        int nnz = (int) nnz();
+        int position = src.position();
+        Objects.checkFromIndexSize(position, nnz, src.limit());
+        if (isNativeDirect(src)) {
+            this.dm.set_nonzeros_buffer(src, position);
+        } else if (src.hasArray()) {
+            this.dm.set_nonzeros_array(src.array(), src.arrayOffset() + position);
+        } else {
+            double[] values = new double[nnz];
+            src.get(values);
+            this.dm.set_nonzeros_array(values, 0);
+            return;
+        }
+        src.position(position + nnz);
+    }
+
+    private static boolean isNativeDirect(DoubleBuffer buffer) {
+        return buffer.isDirect() && buffer.order() == ByteOrder.nativeOrder();
+    }
+
+    public double[] toArray() {
+        double[] values = new double[(int) nnz()];
+        this.dm.get_nonzeros_array(values, 0);
+        return values;
+    }
+
+    /**
+     * @return dense column vector of src[offset] to src[offset + count - 1].
+     */
+    public static DMWrapper fromArray(double[] src, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, src.length);
+        return new DMWrapper(DM.from_array(src, offset, count), false);
+    }
+
+    /**
+     * <pre>
+     * Read-only direct buffer in native byte order on the nonzeros. Does not copy.
+     * Keeps this DM alive as long as the buffer or any buffer derived from it is reachable.
+     * Only valid as long as the sparsity of this DM is unchanged and, if created within a CasADiScope, the scope is open.
+     * </pre>
+     */
+    public ByteBuffer viewNonzeros() {
+        if (nnz() == 0) {
+            return ByteBuffer.allocateDirect(0).order(ByteOrder.nativeOrder()).asReadOnlyBuffer();
+        }
+        ByteBuffer root = (ByteBuffer) this.dm.nonzeros_view();
+        // Every buffer derived from root (asReadOnlyBuffer(), slice(), duplicate(), asDoubleBuffer(), ...) keeps root
+        // reachable, but not the intermediate buffers. Hence the DM must be kept alive by root.
+        WrapUtil.LIFE_TIME_EXTENDER.extend(this.dm, root);
+        // asReadOnlyBuffer() resets the byte order.
+        return root.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
     @Override
     public SparsityWrapper sparsity() {
         return new SparsityWrapper(this.dm.sparsity());
@@ -1035,6 +1139,20 @@ public class DMWrapper implements Wrapper<DMWrapper>, NumericValue {
         this.dm.to_file(filename);
     }
 
+    /**
+     * Writes this DM in the binary CCS format of {@link CcsFile}. Intended for large matrices.
+     */
+    public void toBinaryFile(Path file) {
+        CcsFile.write(file, this);
+    }
+
+    /**
+     * Reads a DM written by {@link #toBinaryFile(Path)} via a memory mapping. The nonzeros are copied once.
+     */
+    public static DMWrapper fromBinaryFile(Path file) {
+        return new DMWrapper(CcsFile.readDM(file), false);
+    }
+
     @Override
     public DMSubIndexWrapper at(int rr) {
         return new DMSubIndexWrapper(this.dm.at(rr));
@@ -0,0 +1,130 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Evaluates a function on many rows of input nonzeros in parallel.
+ * Each worker uses its own {@link FunctionEvaluator}, hence its own memory object of the function.
+ * All evaluators are created and closed on the calling thread. The workers only evaluate numerically
+ * and do not create any CasADi objects. Hence, any executor can run them.
+ * The calling thread evaluates the first chunk itself and the remaining chunks run on the executor.
+ * Without an executor, a pool shared by all batches is used.
+ */
+final class BatchEvaluation {
+
+    /**
+     * Created on the first batch and shared by all further ones. Its threads are daemon threads and terminate when idle.
+     */
+    private static final class SharedPool {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    private BatchEvaluation() {
+    }
+
+    static double[][] eval(FunctionWrapper function, double[][] inputs, int parallelism) {
+        return eval(function, inputs, parallelism, SharedPool.POOL);
+    }
+
+    static double[][] eval(FunctionWrapper function, double[][] inputs, int parallelism, Executor executor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive.");
+        }
+        Objects.requireNonNull(executor, "The executor must not be null.");
+        final int nnzIn = (int) function.getNumberOfInputNNZ();
+        final int nnzOut = (int) function.getNumberOfOutputNNZ();
+        for (int row = 0; row < inputs.length; ++row) {
+            if (inputs[row].length != nnzIn) {
+                throw new IllegalArgumentException("Expected " + nnzIn + " input nonzeros in row " + row + ", but got " + inputs[row].length + ".");
+            }
+        }
+
+        final double[][] outputs = new double[inputs.length][nnzOut];
+        final int chunks = Math.max(1, Math.min(parallelism, inputs.length));
+        final List<FunctionEvaluator> evaluators = new ArrayList<>(chunks);
+        try {
+            for (int i = 0; i < chunks; ++i) {
+                evaluators.add(function.createEvaluator());
+            }
+            final List<CompletableFuture<Void>> workers = new ArrayList<>(chunks - 1);
+            try {
+                for (int i = 1; i < chunks; ++i) {
+                    final FunctionEvaluator evaluator = evaluators.get(i);
+                    final int from = bound(inputs.length, i, chunks);
+                    final int to = bound(inputs.length, i + 1, chunks);
+                    workers.add(CompletableFuture.runAsync(() -> evalRange(evaluator, inputs, outputs, from, to), executor));
+                }
+                evalRange(evaluators.get(0), inputs, outputs, 0, bound(inputs.length, 1, chunks));
+            } finally {
+                // The evaluators are closed afterwards. Hence, all workers must have finished, even if the caller failed.
+                awaitAll(workers);
+            }
+            return outputs;
+        } finally {
+            evaluators.forEach(FunctionEvaluator::close);
+        }
+    }
+
+    private static int bound(int rows, int chunk, int chunks) {
+        return (int) ((long) rows * chunk / chunks);
+    }
+
+    /**
+     * Waits uninterruptibly, because the workers use the evaluators of the caller.
+     */
+    private static void awaitAll(List<CompletableFuture<Void>> workers) {
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Splits each input row into the inputs of the function and concatenates the outputs into the output row.
+     * Without copies, if the function has a single input and a single output.
+     */
+    private static void evalRange(FunctionEvaluator evaluator, double[][] inputs, double[][] outputs, int from, int to) {
+        final int nIn = evaluator.getNumberOfInputs();
+        final int nOut = evaluator.getNumberOfOutputs();
+        final boolean splitIn = nIn != 1;
+        final boolean splitOut = nOut != 1;
+        final double[][] in = splitIn ? evaluator.allocateInputs() : new double[1][];
+        final double[][] out = splitOut ? evaluator.allocateOutputs() : new double[1][];
+
+        for (int row = from; row < to; ++row) {
+            if (splitIn) {
+                int offset = 0;
+                for (int i = 0; i < nIn; ++i) {
+                    System.arraycopy(inputs[row], offset, in[i], 0, in[i].length);
+                    offset += in[i].length;
+                }
+            } else {
+                in[0] = inputs[row];
+            }
+            if (!splitOut) {
+                out[0] = outputs[row];
+            }
+
+            evaluator.eval(in, out);
+
+            if (splitOut) {
+                int offset = 0;
+                for (int i = 0; i < nOut; ++i) {
+                    System.arraycopy(out[i], 0, outputs[row], offset, out[i].length);
+                    offset += out[i].length;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Options of the C compiler used by {@link FunctionWrapper#compileNative(java.nio.file.Path, CompilerOptions)}.
+ * The flags for a position-independent shared library are always added.
+ *
+ * @param compiler the executable of the compiler, e.g. gcc or clang, looked up in the PATH
+ * @param flags    additional flags, e.g. optimization flags
+ * @param timeout  the maximum duration of a compilation
+ */
+public record CompilerOptions(String compiler, List<String> flags, Duration timeout) {
+
+    public CompilerOptions {
+        flags = List.copyOf(flags);
+    }
+
+    /**
+     * gcc with -O3 -march=native and a timeout of 5 minutes.
+     * The library is specific to the processor it was compiled on.
+     *
+     * @return the default options
+     */
+    public static CompilerOptions defaults() {
+        return new CompilerOptions("gcc", List.of("-O3", "-march=native"), Duration.ofMinutes(5));
+    }
+
+    public CompilerOptions withCompiler(String compiler) {
+        return new CompilerOptions(compiler, this.flags, this.timeout);
+    }
+
+    public CompilerOptions withFlags(String... flags) {
+        return new CompilerOptions(this.compiler, List.of(flags), this.timeout);
+    }
+
+    public CompilerOptions withTimeout(Duration timeout) {
+        return new CompilerOptions(this.compiler, this.flags, timeout);
+    }
+}
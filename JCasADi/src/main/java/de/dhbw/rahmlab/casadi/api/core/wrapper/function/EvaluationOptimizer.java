@@ -0,0 +1,177 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.implUtil.CasADiScope;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+/**
+ * Decides whether an MX function evaluates faster after expansion to SX.
+ *
+ * Expansion pays off for graphs of many small, mostly scalar operations, because SX avoids the overhead of
+ * MX nodes. It does not pay off for graphs of few large matrix operations, which expand to a very large number of
+ * scalar instructions. The instruction counts of both variants decide the clear cases. Otherwise, both variants are
+ * evaluated on random sample inputs and the faster one is kept.
+ *
+ * The chosen function is remembered per FunctionWrapper as long as the wrapper is reachable, so repeated calls
+ * neither serialize nor expand again. On a miss, the decision is looked up by the hash of the serialized function.
+ * The most recently used decisions are kept for the lifetime of the process. Thus, the expansion is repeated for an
+ * equal function, but the benchmark is not. The expansion is created outside of any open CasADiScope, because it is
+ * remembered beyond the scope.
+ */
+final class EvaluationOptimizer {
+
+    /** Expansion is kept without benchmark if the SX has at most this many instructions per MX instruction. */
+    private static final double EXPAND_RATIO = 1.0;
+    /** Expansion is discarded without benchmark if the SX has more than this many instructions per MX instruction. */
+    private static final double KEEP_RATIO = 64.0;
+
+    private static final int SAMPLES = 4;
+    private static final int WARMUP_EVALUATIONS = 16;
+    private static final int ROUNDS = 3;
+    private static final long ROUND_NANOS = 5_000_000L;
+
+    private static final int MAX_DECISIONS = 1024;
+
+    // Guarded by itself. Access-ordered, the least recently used decision is dropped.
+    private static final Map<String, Boolean> DECISIONS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_DECISIONS;
+        }
+    };
+
+    /**
+     * The chosen function per wrapper, weakly keyed by the wrapper. The value must not reference the key, so the
+     * unchanged function is stored as null.
+     */
+    private static final Map<FunctionWrapper, FunctionWrapper> CHOSEN = new WeakHashMap<>();
+
+    private EvaluationOptimizer() {
+    }
+
+    static FunctionWrapper optimize(FunctionWrapper function) {
+        synchronized (CHOSEN) {
+            if (CHOSEN.containsKey(function)) {
+                FunctionWrapper chosen = CHOSEN.get(function);
+                return chosen == null ? function : chosen;
+            }
+        }
+        FunctionWrapper chosen = choose(function);
+        synchronized (CHOSEN) {
+            CHOSEN.put(function, chosen == function ? null : chosen);
+        }
+        return chosen;
+    }
+
+    private static FunctionWrapper choose(FunctionWrapper function) {
+        if (!function.isOfType("MXFunction") || function.hasFreeVariables()) {
+            return function;
+        }
+        String hash = hash(function);
+        Boolean expand;
+        synchronized (DECISIONS) {
+            expand = DECISIONS.get(hash);
+        }
+        if (expand != null) {
+            return expand ? expand(function) : function;
+        }
+
+        FunctionWrapper expanded;
+        try {
+            expanded = expand(function);
+        } catch (RuntimeException ex) {
+            // Not all MX operations can be expanded, e.g. calls to externals.
+            decide(hash, false);
+            return function;
+        }
+        boolean faster = isFaster(expanded, function);
+        decide(hash, faster);
+        return faster ? expanded : function;
+    }
+
+    /**
+     * The expansion is remembered in CHOSEN, so it must outlive the CasADiScope of the caller, if any.
+     */
+    private static FunctionWrapper expand(FunctionWrapper function) {
+        return CasADiScope.untracked(function::expand);
+    }
+
+    private static void decide(String hash, boolean expand) {
+        synchronized (DECISIONS) {
+            DECISIONS.put(hash, expand);
+        }
+    }
+
+    private static boolean isFaster(FunctionWrapper expanded, FunctionWrapper function) {
+        double ratio = (double) expanded.getNumberOfInstructions() / Math.max(1, function.getNumberOfInstructions());
+        if (ratio <= EXPAND_RATIO) {
+            return true;
+        }
+        if (ratio > KEEP_RATIO) {
+            return false;
+        }
+        try (FunctionEvaluator sx = new FunctionEvaluator(expanded);
+             FunctionEvaluator mx = new FunctionEvaluator(function)) {
+            double[][][] samples = samples(mx);
+            double[][] out = mx.allocateOutputs();
+            double sxNanos = Double.POSITIVE_INFINITY;
+            double mxNanos = Double.POSITIVE_INFINITY;
+            // Alternating rounds and taking the minimum reduces the influence of other load.
+            for (int round = 0; round < ROUNDS; ++round) {
+                sxNanos = Math.min(sxNanos, nanosPerEvaluation(sx, samples, out));
+                mxNanos = Math.min(mxNanos, nanosPerEvaluation(mx, samples, out));
+            }
+            return sxNanos < mxNanos;
+        } catch (IllegalStateException ex) {
+            // The evaluation failed on the random samples. Keep the function as it is.
+            return false;
+        }
+    }
+
+    private static double[][][] samples(FunctionEvaluator evaluator) {
+        Random random = new Random(0);
+        double[][][] samples = new double[SAMPLES][][];
+        for (int s = 0; s < SAMPLES; ++s) {
+            samples[s] = evaluator.allocateInputs();
+            for (double[] input : samples[s]) {
+                for (int i = 0; i < input.length; ++i) {
+                    input[i] = random.nextDouble();
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static double nanosPerEvaluation(FunctionEvaluator evaluator, double[][][] samples, double[][] out) {
+        for (int i = 0; i < WARMUP_EVALUATIONS; ++i) {
+            evaluator.eval(samples[i % samples.length], out);
+        }
+        long evaluations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (double[][] sample : samples) {
+                evaluator.eval(sample, out);
+            }
+            evaluations += samples.length;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ROUND_NANOS);
+        return (double) elapsed / evaluations;
+    }
+
+    private static String hash(FunctionWrapper function) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(function.serialize().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.impl.casadi.Function;
+import de.dhbw.rahmlab.casadi.impl.std.Dict;
+import de.dhbw.rahmlab.casadi.impl.std.StdVectorMX;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiScope;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Size-bounded least-recently-used cache of MX functions.
+ * Functions are identified by their name, the expression nodes of their inputs and outputs, and their options.
+ * Two MX are the same expression node if one is a copy of the other. Building an equal expression again creates
+ * new nodes and therefore misses the cache. Callers benefit by reusing their MX objects.
+ *
+ * Cached entries keep their expression nodes alive. This guarantees that the node identities in the keys are
+ * not reused for other expressions. They are created outside of any open CasADiScope and are therefore not deleted
+ * when the scope of the caller is closed.
+ *
+ * CasADi is not thread-safe. Therefore, {@link #forCurrentThread()} provides one cache per thread instead of a
+ * single cache for the whole process. Instances are synchronized nevertheless.
+ */
+public final class FunctionCache {
+
+    /** Maximum number of entries of the caches returned by {@link #forCurrentThread()}. */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final ThreadLocal<FunctionCache> PER_THREAD = ThreadLocal.withInitial(() -> new FunctionCache(DEFAULT_MAX_SIZE));
+
+    private record Key(String name, List<Long> inputs, List<Long> outputs, String options) {
+
+    }
+
+    /**
+     * Holds copies of the input and output vectors to pin the expression nodes of the key.
+     */
+    private record Entry(FunctionWrapper function, StdVectorMX inputs, StdVectorMX outputs) {
+
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param maxSize the maximum number of cached functions
+     */
+    public FunctionCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > FunctionCache.this.maxSize) {
+                    ++FunctionCache.this.evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache of the current thread.
+     *
+     * @return the cache of the current thread
+     */
+    public static FunctionCache forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Returns the cached function or creates and caches a new one.
+     *
+     * @param functionName the name of the function
+     * @param exIn the input symbols
+     * @param exOut the output expressions
+     * @param opts the options for function creation, may be null
+     * @return the cached function
+     */
+    public synchronized FunctionWrapper get(String functionName, StdVectorMX exIn, StdVectorMX exOut, Dict opts) {
+        Key key = new Key(functionName, nodeHashes(exIn), nodeHashes(exOut), optionsKey(opts));
+        Entry entry = this.entries.get(key);
+        if (entry != null) {
+            ++this.hits;
+            return entry.function();
+        }
+        ++this.misses;
+        // Entries outlive the CasADiScope of the caller, if any.
+        entry = CasADiScope.untracked(() -> {
+            Function function = (opts == null)
+                    ? new Function(functionName, exIn, exOut)
+                    : new Function(functionName, exIn, exOut, opts);
+            return new Entry(new FunctionWrapper(function), new StdVectorMX(exIn), new StdVectorMX(exOut));
+        });
+        this.entries.put(key, entry);
+        return entry.function();
+    }
+
+    /**
+     * Returns the cached function or creates and caches a new one.
+     *
+     * @param functionName the name of the function
+     * @param exIn the input symbols
+     * @param exOut the output expressions
+     * @param opts the options for function creation
+     * @return the cached function
+     */
+    public FunctionWrapper get(String functionName, MXVector exIn, MXVector exOut, Dictionary opts) {
+        return get(functionName, exIn.getCasADiObject(), exOut.getCasADiObject(), opts.getCasADiObject());
+    }
+
+    /**
+     * Returns the cached function or creates and caches a new one.
+     *
+     * @param functionName the name of the function
+     * @param exIn the input symbols
+     * @param exOut the output expressions
+     * @return the cached function
+     */
+    public FunctionWrapper get(String functionName, MXVector exIn, MXVector exOut) {
+        return get(functionName, exIn.getCasADiObject(), exOut.getCasADiObject(), null);
+    }
+
+    private static List<Long> nodeHashes(StdVectorMX expressions) {
+        Long[] hashes = new Long[expressions.size()];
+        for (int i = 0; i < hashes.length; ++i) {
+            hashes[i] = expressions.get(i).node_hash();
+        }
+        return List.of(hashes);
+    }
+
+    private static String optionsKey(Dict opts) {
+        if (opts == null || opts.isEmpty()) {
+            return "";
+        }
+        return new TreeMap<>(new Dictionary(opts)).toString();
+    }
+
+    /**
+     * Returns the number of lookups which found a cached function.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of lookups which created a new function.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of functions removed to stay within the maximum size.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the number of cached functions.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the maximum number of cached functions.
+     *
+     * @return the maximum size of the cache
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Removes all cached functions. The metrics are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+}
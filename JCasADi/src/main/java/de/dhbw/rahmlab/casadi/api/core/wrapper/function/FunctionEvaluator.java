@@ -0,0 +1,121 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.impl.jcasadi.FunctionEvaluatorNative;
+
+/**
+ * Evaluates a function repeatedly on the nonzeros of its inputs and outputs given as double arrays.
+ * A memory object of the function and all work vectors are allocated once at construction.
+ * Thus, {@link #eval(double[][], double[][])} allocates neither on the JVM heap nor natively.
+ *
+ * The arrays are accessed without copies while the function is evaluated. During this time, the garbage collector
+ * may be blocked. Intended for small functions evaluated at high rates.
+ *
+ * Not thread-safe. Use one evaluator per thread.
+ */
+public class FunctionEvaluator implements AutoCloseable {
+
+    private final FunctionEvaluatorNative evaluator;
+    private final int[] nnzIn;
+    private final int[] nnzOut;
+    private boolean closed = false;
+
+    /**
+     * Constructs an evaluator for the given function and checks out a memory object of it.
+     *
+     * @param function the function to evaluate
+     */
+    public FunctionEvaluator(FunctionWrapper function) {
+        this.evaluator = new FunctionEvaluatorNative(function.getCasADiObject());
+        this.nnzIn = new int[(int) this.evaluator.n_in()];
+        for (int i = 0; i < this.nnzIn.length; ++i) {
+            this.nnzIn[i] = (int) this.evaluator.nnz_in(i);
+        }
+        this.nnzOut = new int[(int) this.evaluator.n_out()];
+        for (int i = 0; i < this.nnzOut.length; ++i) {
+            this.nnzOut[i] = (int) this.evaluator.nnz_out(i);
+        }
+    }
+
+    /**
+     * Evaluates the function.
+     *
+     * @param in the nonzeros of each input. A null row is treated as zeros.
+     * @param out receives the nonzeros of each output. A null row is skipped.
+     * @throws IllegalArgumentException if the number of rows or a row length does not match the function
+     * @throws IllegalStateException if the evaluator is closed or the evaluation failed
+     */
+    public void eval(double[][] in, double[][] out) {
+        if (this.closed) {
+            throw new IllegalStateException("The evaluator is closed.");
+        }
+        checkRows(in, this.nnzIn, "input");
+        checkRows(out, this.nnzOut, "output");
+        if (this.evaluator.eval(in, out) != 0) {
+            throw new IllegalStateException("Evaluation of the function failed.");
+        }
+    }
+
+    private static void checkRows(double[][] rows, int[] nnz, String kind) {
+        if (rows.length != nnz.length) {
+            throw new IllegalArgumentException("Expected " + nnz.length + " " + kind + " rows, but got " + rows.length + ".");
+        }
+        for (int i = 0; i < nnz.length; ++i) {
+            if (rows[i] != null && rows[i].length != nnz[i]) {
+                throw new IllegalArgumentException("Expected " + nnz[i] + " nonzeros for " + kind + " " + i + ", but got " + rows[i].length + ".");
+            }
+        }
+    }
+
+    /**
+     * Allocates arrays matching the nonzeros of the inputs.
+     *
+     * @return one zero-initialized array per input
+     */
+    public double[][] allocateInputs() {
+        return allocate(this.nnzIn);
+    }
+
+    /**
+     * Allocates arrays matching the nonzeros of the outputs.
+     *
+     * @return one array per output
+     */
+    public double[][] allocateOutputs() {
+        return allocate(this.nnzOut);
+    }
+
+    private static double[][] allocate(int[] nnz) {
+        double[][] rows = new double[nnz.length][];
+        for (int i = 0; i < nnz.length; ++i) {
+            rows[i] = new double[nnz[i]];
+        }
+        return rows;
+    }
+
+    public int getNumberOfInputs() {
+        return this.nnzIn.length;
+    }
+
+    public int getNumberOfOutputs() {
+        return this.nnzOut.length;
+    }
+
+    public int getInputNNZ(int ind) {
+        return this.nnzIn[ind];
+    }
+
+    public int getOutputNNZ(int ind) {
+        return this.nnzOut[ind];
+    }
+
+    /**
+     * Releases the memory object of the function. Further evaluations are not possible.
+     */
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.evaluator.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.impl.casadi.CasadiMeta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Persistent cache of serialized functions, e.g. nlpsol functions, to skip building models at startup.
+ *
+ * Entries are identified by a key which must describe all inputs of building the function, e.g. a model name,
+ * its version and its dimensions. The key is hashed to a file name. Entries are written to a temporary file
+ * first and moved into place atomically. Thus, several processes may share a store.
+ *
+ * Each CasADi version and revision uses its own subdirectory, because serialized functions are not
+ * guaranteed to be readable by other versions. Entries of other versions are never read and can be deleted with
+ * {@link #purgeStale()}.
+ *
+ * Usage:
+ * <pre>
+ * FunctionStore store = new FunctionStore(Path.of("cache"));
+ * Supplier&lt;FunctionWrapper&gt; dynamics = store.lazy("dynamics/v3/n=12", () -&gt; buildDynamics(12));
+ * </pre>
+ */
+public final class FunctionStore {
+
+    private static final String EXTENSION = ".casadi";
+
+    private final Path directory;
+    private final Path versionDirectory;
+
+    /**
+     * Constructs a store. The directories are created on the first write.
+     *
+     * @param directory the root directory of the store
+     */
+    public FunctionStore(Path directory) {
+        this.directory = directory;
+        this.versionDirectory = directory.resolve(versionName());
+    }
+
+    private static String versionName() {
+        String revision = CasadiMeta.git_revision();
+        return "casadi-" + CasadiMeta.version() + (revision.isEmpty() ? "" : "-" + revision);
+    }
+
+    /**
+     * Computes a stable key from the inputs of building a function.
+     *
+     * @param parts the inputs, converted with {@link String#valueOf(Object)}
+     * @return the key
+     */
+    public static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            if (!key.isEmpty()) {
+                key.append('\u0000');
+            }
+            key.append(part);
+        }
+        return key.toString();
+    }
+
+    private Path path(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            return this.versionDirectory.resolve(HexFormat.of().formatHex(hash) + EXTENSION);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Checks whether an entry exists for the current CasADi version.
+     *
+     * @param key the key of the entry
+     * @return true if the entry exists
+     */
+    public boolean contains(String key) {
+        return Files.exists(path(key));
+    }
+
+    /**
+     * Loads an entry.
+     *
+     * @param key the key of the entry
+     * @return the function or empty if there is no entry for the current CasADi version
+     */
+    public Optional<FunctionWrapper> load(String key) {
+        Path file = path(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(FunctionUtils.load(file.toString()));
+    }
+
+    /**
+     * Stores an entry atomically. An existing entry is replaced.
+     *
+     * @param key      the key of the entry
+     * @param function the function to store
+     * @throws UncheckedIOException if the entry could not be written
+     */
+    public void store(String key, FunctionWrapper function) {
+        Path file = path(key);
+        try {
+            Files.createDirectories(this.versionDirectory);
+            Path temporary = Files.createTempFile(this.versionDirectory, file.getFileName().toString(), ".tmp");
+            try {
+                function.save(temporary.toString());
+                try {
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Loads an entry or builds and stores it if there is none.
+     *
+     * @param key     the key of the entry
+     * @param builder builds the function if there is no entry
+     * @return the loaded or built function
+     */
+    public FunctionWrapper getOrBuild(String key, Supplier<FunctionWrapper> builder) {
+        Optional<FunctionWrapper> loaded = load(key);
+        if (loaded.isPresent()) {
+            return loaded.get();
+        }
+        FunctionWrapper function = builder.get();
+        store(key, function);
+        return function;
+    }
+
+    /**
+     * Defers {@link #getOrBuild(String, Supplier)} until the function is used for the first time.
+     * The result is remembered. Call the returned supplier on the thread which uses the function.
+     *
+     * @param key     the key of the entry
+     * @param builder builds the function if there is no entry
+     * @return a supplier which loads or builds the function once
+     */
+    public Supplier<FunctionWrapper> lazy(String key, Supplier<FunctionWrapper> builder) {
+        return new Supplier<>() {
+
+            private FunctionWrapper function;
+
+            @Override
+            public synchronized FunctionWrapper get() {
+                if (this.function == null) {
+                    this.function = getOrBuild(key, builder);
+                }
+                return this.function;
+            }
+        };
+    }
+
+    /**
+     * Deletes an entry.
+     *
+     * @param key the key of the entry
+     * @return true if the entry existed
+     */
+    public boolean remove(String key) {
+        try {
+            return Files.deleteIfExists(path(key));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Deletes the entries of all other CasADi versions.
+     *
+     * @return the number of deleted entries
+     */
+    public int purgeStale() {
+        if (!Files.isDirectory(this.directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(this.directory, "casadi-*")) {
+            for (Path version : versions) {
+                if (version.equals(this.versionDirectory) || !Files.isDirectory(version)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(version)) {
+                    for (Path entry : entries) {
+                        Files.delete(entry);
+                        ++deleted;
+                    }
+                }
+                Files.delete(version);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return deleted;
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+}
@@ -21,11 +21,17 @@ import de.dhbw.rahmlab.casadi.impl.casadi.Function;
 import de.dhbw.rahmlab.casadi.impl.casadi.GenericType;
 import de.dhbw.rahmlab.casadi.impl.std.*;
 
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 public class FunctionWrapper {
 
     private final Function function;
+    /**
+     * Holds CasADi objects created by the first thread calling mapOver. Confined like this wrapper.
+     */
+    private MappedEvaluation mappedEvaluation;
 
     public FunctionWrapper() {
         this.function = new Function();
@@ -119,6 +125,19 @@ public class FunctionWrapper {
         return new FunctionWrapper(this.function.expand(name));
     }
 
+    /**
+     * Returns the faster of this function and its expansion to SX for numeric evaluation.
+     * Only MX functions without free variables are considered. The decision is based on the number of
+     * instructions of both variants and, if not clear, on a short benchmark with random inputs.
+     * The result is remembered for this wrapper and the decision per function hash, so the benchmark runs once per
+     * function.
+     *
+     * @return this function or its expansion
+     */
+    public FunctionWrapper optimizedForEvaluation() {
+        return EvaluationOptimizer.optimize(this);
+    }
+
     public long getNumberOfInputs() {
         return this.function.n_in();
     }
@@ -553,6 +572,45 @@ public class FunctionWrapper {
         return new FunctionWrapper(this.function.map(n, parallelization, maxNumThreads));
     }
 
+    /**
+     * Evaluates this function for every column with a single call of the mapped function.
+     * The columns are packed into the horizontally concatenated inputs of the mapped function with bulk copies,
+     * and the outputs are unpacked the same way. The mapped function is cached per number of columns.
+     * It is created by the calling thread and kept by this wrapper, so it is subject to the same thread confinement
+     * as this wrapper: within a CasADiExecutor task, use only wrappers created by that task.
+     *
+     * @param columns one column per evaluation, containing the nonzeros of all inputs one after another
+     * @param mode the parallelization of the evaluations
+     * @return one column per evaluation, containing the nonzeros of all outputs one after another
+     * @throws IllegalArgumentException if a column length does not match the number of input nonzeros
+     */
+    public double[][] mapOver(double[][] columns, Parallelization mode) {
+        return mappedEvaluation().eval(columns, mode);
+    }
+
+    /**
+     * Evaluates this function as a recurrence x_{k+1} = f(x_k, u_k) over all columns with a single call of
+     * {@link #mapaccum(long)}. The first input and the first output are the state, with equal sparsity.
+     * The accumulated function is cached per number of columns.
+     *
+     * @param x0 the nonzeros of the initial state
+     * @param columns one column per step, containing the nonzeros of all inputs but the first one after another
+     * @return one column per step, containing the nonzeros of all outputs one after another, starting with the
+     *         state after the step
+     * @throws IllegalArgumentException if the length of x0 or of a column does not match the number of nonzeros
+     * @see #mapOver(double[][], Parallelization)
+     */
+    public double[][] mapAccumOver(double[] x0, double[][] columns) {
+        return mappedEvaluation().evalAccumulated(x0, columns);
+    }
+
+    private synchronized MappedEvaluation mappedEvaluation() {
+        if (this.mappedEvaluation == null) {
+            this.mappedEvaluation = new MappedEvaluation(this);
+        }
+        return this.mappedEvaluation;
+    }
+
     public FunctionWrapper map(String name, String parallelization, long n, CasADiIntVector reduceIn, CasADiIntVector reduceOut, Dictionary opts) {
         return new FunctionWrapper(this.function.map(name, parallelization, n, reduceIn.getCasADiObject(), reduceOut.getCasADiObject(), opts.getCasADiObject()));
     }
@@ -629,6 +687,37 @@ public class FunctionWrapper {
         return this.function.generate();
     }
 
+    /**
+     * Generates C code for this function, compiles it to a shared library and loads the library.
+     * Libraries are cached in cacheDir by a hash of the serialized function, the compiler options, the target they
+     * resolve to and the CasADi version, so an unchanged function is compiled only once.
+     *
+     * Only this function is compiled, not its derivatives. The loaded external function has no Jacobian,
+     * forward or reverse derivatives, so it cannot be differentiated, e.g. as part of an NLP solved with exact
+     * derivatives. Compile the derivative functions separately, e.g. {@code jacobian().compileNative(cacheDir)}, and
+     * use this method for functions which are only evaluated.
+     *
+     * @param cacheDir the directory of the generated code and the compiled libraries
+     * @param options the compiler and its flags
+     * @return a function with the same inputs and outputs which evaluates the compiled code
+     * @throws IllegalStateException if the compilation failed or timed out
+     * @throws java.io.UncheckedIOException if the cache directory is not writable
+     */
+    public FunctionWrapper compileNative(Path cacheDir, CompilerOptions options) {
+        return NativeCompiler.compile(this, cacheDir, options);
+    }
+
+    /**
+     * Compiles this function with {@link CompilerOptions#defaults()}.
+     *
+     * @param cacheDir the directory of the generated code and the compiled libraries
+     * @return a function with the same inputs and outputs which evaluates the compiled code
+     * @see #compileNative(Path, CompilerOptions)
+     */
+    public FunctionWrapper compileNative(Path cacheDir) {
+        return compileNative(cacheDir, CompilerOptions.defaults());
+    }
+
     public String generateDependencies(String fileName, Dictionary opts) {
         return this.function.generate_dependencies(fileName, opts.getCasADiObject());
     }
@@ -920,6 +1009,35 @@ public class FunctionWrapper {
         this.function.release(mem);
     }
 
+    public FunctionEvaluator createEvaluator() {
+        return new FunctionEvaluator(this);
+    }
+
+    /**
+     * Evaluates this function for every row in parallel. Each worker uses its own memory object.
+     * The workers run on a pool shared by all batches.
+     *
+     * @param inputs one row per evaluation, containing the nonzeros of all inputs one after another
+     * @param parallelism the maximum number of threads, including the calling thread
+     * @return one row per evaluation, containing the nonzeros of all outputs one after another
+     */
+    public double[][] evalBatch(double[][] inputs, int parallelism) {
+        return BatchEvaluation.eval(this, inputs, parallelism);
+    }
+
+    /**
+     * Evaluates this function for every row in parallel. Each worker uses its own memory object.
+     * The workers do not create CasADi objects, hence any executor can run them.
+     *
+     * @param inputs one row per evaluation, containing the nonzeros of all inputs one after another
+     * @param parallelism the maximum number of threads, including the calling thread
+     * @param executor runs all but the first chunk of rows, which the calling thread evaluates
+     * @return one row per evaluation, containing the nonzeros of all outputs one after another
+     */
+    public double[][] evalBatch(double[][] inputs, int parallelism, Executor executor) {
+        return BatchEvaluation.eval(this, inputs, parallelism, executor);
+    }
+
     public Dictionary getAllFunctionsInCache() {
         return new Dictionary(this.function.cache());
     }
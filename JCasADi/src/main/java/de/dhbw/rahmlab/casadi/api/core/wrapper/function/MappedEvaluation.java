@@ -0,0 +1,134 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.implUtil.CasADiScope;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Evaluates a function on many columns of input nonzeros with a single call of a mapped function.
+ *
+ * The nonzeros of the k-th copy of an input of a mapped function follow the nonzeros of the previous copies,
+ * also for sparse inputs. Hence, the columns are packed into one array per input with bulk copies, evaluated
+ * by one {@link FunctionEvaluator} call which runs all copies natively, and the outputs are unpacked the same way.
+ * The same holds for the accumulated function of mapaccum, except for its first input, the initial state,
+ * which is passed once.
+ *
+ * The mapped functions are cached per number of columns and parallelization. They are created by the calling thread
+ * and are subject to the same thread confinement as the FunctionWrapper they belong to. They are created outside of
+ * any open CasADiScope, because they are reused after the scope of the first call is closed.
+ */
+final class MappedEvaluation {
+
+    private static final int MAX_CACHED = 8;
+
+    private record Key(int n, Parallelization mode) {
+
+    }
+
+    private final FunctionWrapper function;
+    private final Map<Key, FunctionWrapper> mapped = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, FunctionWrapper> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    private final Map<Integer, FunctionWrapper> accumulated = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, FunctionWrapper> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    MappedEvaluation(FunctionWrapper function) {
+        this.function = function;
+    }
+
+    synchronized FunctionWrapper getMapped(int n, Parallelization mode) {
+        return this.mapped.computeIfAbsent(new Key(n, mode), key -> CasADiScope.untracked(() -> switch (mode) {
+            case THREAD -> this.function.map(n, mode.getName(), Runtime.getRuntime().availableProcessors());
+            case SERIAL, OPENMP -> this.function.map(n, mode.getName());
+        }));
+    }
+
+    synchronized FunctionWrapper getAccumulated(int n) {
+        return this.accumulated.computeIfAbsent(n, key -> CasADiScope.untracked(() -> this.function.mapaccum(n)));
+    }
+
+    double[][] eval(double[][] columns, Parallelization mode) {
+        final int n = columns.length;
+        checkColumns(columns, (int) this.function.getNumberOfInputNNZ());
+        final double[][] outputs = new double[n][(int) this.function.getNumberOfOutputNNZ()];
+        if (n == 0) {
+            return outputs;
+        }
+
+        try (FunctionEvaluator evaluator = new FunctionEvaluator(getMapped(n, mode))) {
+            final double[][] in = evaluator.allocateInputs();
+            final double[][] out = evaluator.allocateOutputs();
+            pack(columns, in, 0);
+            evaluator.eval(in, out);
+            unpack(out, outputs);
+        }
+        return outputs;
+    }
+
+    double[][] evalAccumulated(double[] x0, double[][] columns) {
+        final int n = columns.length;
+        final int nnzState = (int) this.function.getNumberOfInputNNZ(0);
+        if (x0.length != nnzState) {
+            throw new IllegalArgumentException("Expected " + nnzState + " nonzeros of the initial state, but got " + x0.length + ".");
+        }
+        checkColumns(columns, (int) this.function.getNumberOfInputNNZ() - nnzState);
+        final double[][] outputs = new double[n][(int) this.function.getNumberOfOutputNNZ()];
+        if (n == 0) {
+            return outputs;
+        }
+
+        try (FunctionEvaluator evaluator = new FunctionEvaluator(getAccumulated(n))) {
+            final double[][] in = evaluator.allocateInputs();
+            final double[][] out = evaluator.allocateOutputs();
+            System.arraycopy(x0, 0, in[0], 0, nnzState);
+            pack(columns, in, 1);
+            evaluator.eval(in, out);
+            unpack(out, outputs);
+        }
+        return outputs;
+    }
+
+    private static void checkColumns(double[][] columns, int nnzIn) {
+        for (int k = 0; k < columns.length; ++k) {
+            if (columns[k].length != nnzIn) {
+                throw new IllegalArgumentException("Expected " + nnzIn + " input nonzeros in column " + k + ", but got " + columns[k].length + ".");
+            }
+        }
+    }
+
+    /**
+     * @param first the first input which is mapped. Its nonzeros start every column.
+     */
+    private static void pack(double[][] columns, double[][] in, int first) {
+        final int n = columns.length;
+        int position = 0;
+        for (int i = first; i < in.length; ++i) {
+            final double[] packed = in[i];
+            final int nnz = packed.length / n;
+            for (int k = 0; k < n; ++k) {
+                System.arraycopy(columns[k], position, packed, k * nnz, nnz);
+            }
+            position += nnz;
+        }
+    }
+
+    private static void unpack(double[][] out, double[][] outputs) {
+        final int n = outputs.length;
+        int offset = 0;
+        for (double[] packed : out) {
+            final int nnz = packed.length / n;
+            for (int k = 0; k < n; ++k) {
+                System.arraycopy(packed, k * nnz, outputs[k], offset, nnz);
+            }
+            offset += nnz;
+        }
+    }
+}
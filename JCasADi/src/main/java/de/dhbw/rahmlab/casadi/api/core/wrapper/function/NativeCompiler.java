@@ -0,0 +1,210 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.CoreWrapper;
+import de.dhbw.rahmlab.casadi.impl.casadi.CasadiMeta;
+import de.dhbw.rahmlab.casadi.impl.casadi.CodeGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates C code for a function, compiles it to a shared library and loads it via external.
+ *
+ * Libraries are cached in a directory. The file name contains a hash of the serialized function, the compiler
+ * options, the target the compiler resolves them to and the CasADi version. Thus, an unchanged function is compiled
+ * only once, also across processes, and a cache directory shared by different machines (e.g. -march=native on
+ * another processor) or CasADi versions does not hand out incompatible libraries. The library is written to a
+ * temporary file first and moved into place atomically, so concurrent compilations of the same function do not
+ * observe partially written files.
+ */
+final class NativeCompiler {
+
+    private static final int HASH_LENGTH = 32;
+
+    /**
+     * The resolved target per compiler and flags. Queried once per process.
+     */
+    private static final Map<List<String>, String> TARGETS = new ConcurrentHashMap<>();
+
+    private NativeCompiler() {
+    }
+
+    static FunctionWrapper compile(FunctionWrapper function, Path cacheDir, CompilerOptions options) {
+        try {
+            Files.createDirectories(cacheDir);
+            String baseName = "jcasadi_" + hash(function, options);
+            Path library = cacheDir.resolve(System.mapLibraryName(baseName));
+            if (!Files.exists(library)) {
+                Path source = generate(function, cacheDir, baseName);
+                try {
+                    build(source, library, options);
+                } finally {
+                    Files.deleteIfExists(source);
+                }
+            }
+            return CoreWrapper.external(function.name(), library.toAbsolutePath().toString());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String hash(FunctionWrapper function, CompilerOptions options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(function.serialize().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(options.compiler().getBytes(StandardCharsets.UTF_8));
+            for (String flag : options.flags()) {
+                digest.update((byte) 0);
+                digest.update(flag.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(resolvedTarget(options).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((CasadiMeta.version() + "-" + CasadiMeta.git_revision()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest()).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String resolvedTarget(CompilerOptions options) {
+        List<String> key = new ArrayList<>();
+        key.add(options.compiler());
+        key.addAll(options.flags());
+        String target = TARGETS.get(key);
+        if (target == null) {
+            target = queryTarget(options);
+            TARGETS.putIfAbsent(key, target);
+        }
+        return target;
+    }
+
+    /**
+     * gcc prints the target options the flags resolve to with -Q --help=target, e.g. the instruction set extensions
+     * enabled by -march=native. For other compilers, the architecture and the processor of this machine are used.
+     */
+    private static String queryTarget(CompilerOptions options) {
+        List<String> command = new ArrayList<>();
+        command.add(options.compiler());
+        command.addAll(options.flags());
+        command.add("-Q");
+        command.add("--help=target");
+        Path output = null;
+        try {
+            output = Files.createTempFile("jcasadi_target", ".txt");
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            if (!process.waitFor(options.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            } else if (process.exitValue() == 0) {
+                return Files.readString(output);
+            }
+        } catch (IOException ex) {
+            // Compiler not found. Fails again on the compilation with a proper message.
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deleteQuietly(output);
+        }
+        return processorDescription();
+    }
+
+    /**
+     * @return the architecture, and on Linux the model and the feature flags of the first processor.
+     */
+    private static String processorDescription() {
+        StringBuilder description = new StringBuilder(System.getProperty("os.arch"));
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/cpuinfo"))) {
+                if (line.isBlank()) {
+                    break;
+                }
+                if (line.startsWith("model name") || line.startsWith("flags") || line.startsWith("Features")
+                        || line.startsWith("CPU part")) {
+                    description.append('\n').append(line);
+                }
+            }
+        } catch (IOException ex) {
+            // Only the architecture.
+        }
+        return description.toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            // A leftover temporary file.
+        }
+    }
+
+    /**
+     * Generates the C code into a uniquely named file of the cache directory.
+     */
+    private static Path generate(FunctionWrapper function, Path cacheDir, String baseName) {
+        String unique = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX);
+        CodeGenerator generator = new CodeGenerator(baseName + "_" + unique + ".c");
+        generator.add(function.getCasADiObject());
+        return Path.of(generator.generate(cacheDir.toAbsolutePath() + cacheDir.getFileSystem().getSeparator()));
+    }
+
+    private static void build(Path source, Path library, CompilerOptions options) throws IOException {
+        Path temporary = Files.createTempFile(library.getParent(), library.getFileName().toString(), ".tmp");
+        Path log = Files.createTempFile(library.getParent(), library.getFileName().toString(), ".log");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(options.compiler());
+            command.add("-fPIC");
+            command.add("-shared");
+            command.addAll(options.flags());
+            command.add(source.toAbsolutePath().toString());
+            command.add("-o");
+            command.add(temporary.toAbsolutePath().toString());
+            command.add("-lm");
+
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            if (!process.waitFor(options.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("Compilation of " + source + " timed out after " + options.timeout() + ".");
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException("Compilation of " + source + " failed with exit code " + process.exitValue()
+                        + ":\n" + Files.readString(log));
+            }
+            try {
+                Files.move(temporary, library, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, library, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while compiling " + source + ".", ex);
+        } finally {
+            Files.deleteIfExists(temporary);
+            Files.deleteIfExists(log);
+        }
+    }
+}
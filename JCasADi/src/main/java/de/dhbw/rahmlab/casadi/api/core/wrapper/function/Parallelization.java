@@ -0,0 +1,39 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+/**
+ * Parallelization of the evaluations of a mapped function, see {@link FunctionWrapper#map(long, String)}.
+ */
+public enum Parallelization {
+
+    /**
+     * Evaluations one after another in a loop.
+     */
+    SERIAL("serial"),
+
+    /**
+     * Evaluations distributed by OpenMP. Falls back to serial if CasADi was built without OpenMP.
+     * The number of threads is controlled by OMP_NUM_THREADS.
+     */
+    OPENMP("openmp"),
+
+    /**
+     * Evaluations distributed on native threads, one per available processor.
+     */
+    THREAD("thread");
+
+    private final String name;
+
+    Parallelization(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name used by CasADi.
+     *
+     * @return the parallelization name.
+     */
+    public String getName() {
+        return name;
+    }
+
+}
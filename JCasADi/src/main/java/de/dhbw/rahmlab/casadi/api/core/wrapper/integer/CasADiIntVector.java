@@ -3,6 +3,10 @@ package de.dhbw.rahmlab.casadi.api.core.wrapper.integer;
 import de.dhbw.rahmlab.casadi.impl.std.StdVectorCasadiInt;
 
 import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
 
 /**
  * A collection that holds a vector of integer values (StdVectorCasadiInt) {@link StdVectorCasadiInt}
@@ -25,7 +29,8 @@ public class CasADiIntVector extends AbstractList<Long> {
      * @param initialElements an array of long values to initialize the collection
      */
     public CasADiIntVector(long... initialElements) {
-        this.stdVectorCasadiInt = new StdVectorCasadiInt(initialElements);
+        this.stdVectorCasadiInt = new StdVectorCasadiInt();
+        this.stdVectorCasadiInt.assign_array(initialElements, 0, initialElements.length);
     }
 
     /**
@@ -86,6 +91,60 @@ public class CasADiIntVector extends AbstractList<Long> {
         return this.stdVectorCasadiInt.get(index);
     }
 
+    /**
+     * Retrieves the integer value at the specified index without boxing.
+     *
+     * @param index the index of the integer value to retrieve
+     * @return the integer value at the specified index
+     */
+    public long getLong(int index) {
+        Objects.checkIndex(index, size());
+        return this.stdVectorCasadiInt.get_value(index);
+    }
+
+    /**
+     * Copies all integer values into an array in a single native call.
+     *
+     * @param dst the array to copy into, if it is large enough; otherwise, a new array is allocated
+     * @return the array containing all integer values
+     */
+    public long[] toArray(long[] dst) {
+        int size = size();
+        long[] array = dst.length >= size ? dst : new long[size];
+        this.stdVectorCasadiInt.get_array(array, 0);
+        return array;
+    }
+
+    /**
+     * Replaces all integer values with the values of the array in a single native call.
+     *
+     * @param src the new integer values
+     */
+    public void assign(long[] src) {
+        this.stdVectorCasadiInt.assign_array(src, 0, src.length);
+    }
+
+    /**
+     * Performs the action for each integer value without boxing.
+     *
+     * @param action the action to be performed for each integer value
+     */
+    public void forEachLong(LongConsumer action) {
+        for (long value : toArray(new long[0])) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Returns a LongStream over a snapshot of the integer values.
+     * Named differently from stream(), which returns a Stream of boxed values.
+     *
+     * @return a LongStream of the integer values
+     */
+    public LongStream longStream() {
+        return Arrays.stream(toArray(new long[0]));
+    }
+
     /**
      * Sets the integer value at the specified index and returns the previous value.
      *
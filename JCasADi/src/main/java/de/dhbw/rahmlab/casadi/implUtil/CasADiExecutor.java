@@ -0,0 +1,219 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <pre>
+ * Runs tasks which use CasADi on dedicated platform threads.
+ * Every thread has its own ManualCleaner which is used for all CasADi objects created on that thread.
+ * Unreachable objects are deleted between tasks on the thread which created them.
+ * A failing deletion is logged and does not stop the thread.
+ * Thus, tasks can be submitted from any thread and multiple tasks run in parallel.
+ *
+ * CasADi objects must not leave the task. Convert the result into plain Java objects within the task
+ * or pass a conversion to submit(Callable, Function), which is executed on the worker thread as well.
+ * CasADi objects of other threads (e.g. a shared model) must not be used within a task.
+ * A model can be transferred by serializing it (FunctionWrapper.serialize()) and deserializing it within the task.
+ *
+ * Usage:
+ * try (CasADiExecutor executor = new CasADiExecutor(4)) {
+ *     CompletableFuture&lt;double[]&gt; x = executor.submit(() -&gt; buildAndSolve(input), result -&gt; result.toArray());
+ * }
+ * </pre>
+ */
+public final class CasADiExecutor implements AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(CasADiExecutor.class.getName());
+
+	private static final Runnable POISON_PILL = () -> {
+	};
+
+	private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+	private final List<Thread> threads;
+	private final List<ManualCleaner> cleaners;
+	private boolean closed = false;
+
+	/**
+	 * One thread per available processor.
+	 */
+	public CasADiExecutor() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public CasADiExecutor(int threadCount) {
+		this(threadCount, CleanupPolicy.MANUAL);
+	}
+
+	/**
+	 * @param policy Additionally to the cleanup between tasks, applied to the cleaner of every thread.
+	 */
+	public CasADiExecutor(int threadCount, CleanupPolicy policy) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("At least one thread is needed.");
+		}
+		this.threads = new ArrayList<>(threadCount);
+		this.cleaners = new ArrayList<>(threadCount);
+		for (int i = 0; i < threadCount; ++i) {
+			ManualCleaner cleaner = ManualCleaner.confined();
+			cleaner.setPolicy(policy);
+			Thread thread = new Thread(() -> work(cleaner), "CasADiExecutor-" + i);
+			thread.setDaemon(true);
+			this.cleaners.add(cleaner);
+			this.threads.add(thread);
+		}
+		this.threads.forEach(Thread::start);
+	}
+
+	private void work(ManualCleaner cleaner) {
+		WrapUtil.bindCleaner(cleaner);
+		try {
+			for (;;) {
+				Runnable task;
+				try {
+					task = this.queue.take();
+				} catch (InterruptedException ex) {
+					continue;
+				}
+				if (task == POISON_PILL) {
+					return;
+				}
+				task.run();
+				cleanup(cleaner);
+			}
+		} finally {
+			cleanup(cleaner);
+			WrapUtil.unbindCleaner();
+		}
+	}
+
+	/**
+	 * <pre>
+	 * The worker must survive failing deletions. Otherwise, the futures of all queued tasks would never complete.
+	 * The remaining unreachable objects stay in the queue and are deleted by the next cleanup.
+	 * </pre>
+	 */
+	private static void cleanup(ManualCleaner cleaner) {
+		for (;;) {
+			try {
+				cleaner.cleanupUnreachable();
+				return;
+			} catch (RuntimeException ex) {
+				LOGGER.log(Level.WARNING, "Deletion of a CasADi object failed on " + Thread.currentThread().getName() + ".", ex);
+			}
+		}
+	}
+
+	/**
+	 * <pre>
+	 * The result must not contain CasADi objects. Use submit(Callable, Function) otherwise.
+	 * Cancelling the returned future prevents the task from being started, but does not interrupt it.
+	 * </pre>
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		return submit(task, Function.identity());
+	}
+
+	/**
+	 * @param toJava Converts the result of the task into plain Java objects. Executed on the worker thread.
+	 */
+	public <R, T> CompletableFuture<T> submit(Callable<R> task, Function<? super R, ? extends T> toJava) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Runnable runnable = () -> {
+			if (future.isDone()) {
+				return;
+			}
+			try {
+				future.complete(toJava.apply(task.call()));
+			} catch (Throwable ex) {
+				future.completeExceptionally(ex);
+			}
+		};
+		// Must not be enqueued after the poison pills.
+		synchronized (this) {
+			if (this.closed) {
+				throw new RejectedExecutionException("The executor is closed.");
+			}
+			this.queue.add(runnable);
+		}
+		return future;
+	}
+
+	/**
+	 * <pre>
+	 * Like submit(Callable), but the CasADi objects created by the task are registered with the shared MANUAL_CLEANER
+	 * instead of the cleaner of the worker thread. Thus, the result may contain CasADi objects.
+	 * For tasks which continue to work on CasADi objects of the caller, e.g. NLPProblem.solveAsync.
+	 * The caller must not use these objects until the returned future is completed.
+	 * The worker thread is not the owner of the shared cleaner. Hence its registrations never trigger the cleanup of
+	 * a CleanupPolicy, which would delete objects of the caller on the worker thread.
+	 * </pre>
+	 */
+	public <T> CompletableFuture<T> submitShared(Callable<T> task) {
+		return submit(() -> {
+			ManualCleaner own = WrapUtil.currentCleaner();
+			WrapUtil.unbindCleaner();
+			try {
+				return task.call();
+			} finally {
+				WrapUtil.bindCleaner(own);
+			}
+		});
+	}
+
+	public int getThreadCount() {
+		return this.threads.size();
+	}
+
+	/**
+	 * @return number of registered objects of all threads which are not freed yet. Only a snapshot.
+	 */
+	public long getPendingCount() {
+		long pending = 0;
+		for (ManualCleaner cleaner : this.cleaners) {
+			pending += cleaner.getPendingCount();
+		}
+		return pending;
+	}
+
+	/**
+	 * Executes all already submitted tasks and waits for the threads to terminate.
+	 */
+	@Override
+	public void close() {
+		if (this.threads.contains(Thread.currentThread())) {
+			throw new IllegalStateException("The executor must not be closed by one of its own tasks.");
+		}
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			for (int i = 0; i < this.threads.size(); ++i) {
+				this.queue.add(POISON_PILL);
+			}
+		}
+		boolean interrupted = false;
+		for (Thread thread : this.threads) {
+			for (;;) {
+				try {
+					thread.join();
+					break;
+				} catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Region for deterministic deletion of CasADi SWIG-proxy-objects.
+ * Every proxy object which owns its C++ object and is created within the scope on the current thread
+ * will be deleted when the scope is closed. Objects which shall outlive the scope need to be passed to escape().
+ * Escaped objects are handed over to the enclosing scope or, if there is none, to the ManualCleaner.
+ * Objects created by untracked() are not deleted by any scope. The caches of the api create their entries this way.
+ *
+ * Using a non-escaped object after the scope is closed is a use-after-free and crashes the JVM.
+ * Objects created within the scope are not registered for garbage-collection-driven cleanup. Therefore they will not
+ * be freed before the scope is closed, even if they become unreachable.
+ *
+ * Not thread-safe. Must be closed on the thread which opened it, in reverse order of opening.
+ *
+ * Usage:
+ * try (CasADiScope scope = CasADiScope.open()) {
+ *     DMWrapper tmp = a.multiply(b);
+ *     DMWrapper result = tmp.add(c);
+ *     scope.escape(result.getCasADiObject());
+ *     return result;
+ * }
+ * </pre>
+ */
+public final class CasADiScope implements AutoCloseable {
+
+	private static final ThreadLocal<CasADiScope> CURRENT = new ThreadLocal<>();
+
+	private record Entry(ManualCleaner cleaner, Object referent, Runnable cleanupAction) {
+
+	}
+
+	private final CasADiScope parent;
+	private final Thread owner;
+	private final List<Entry> entries = new ArrayList<>();
+	private boolean closed = false;
+
+	private CasADiScope(CasADiScope parent) {
+		this.parent = parent;
+		this.owner = Thread.currentThread();
+	}
+
+	/**
+	 * Opens a new scope on the current thread. Nested within the currently open scope, if any.
+	 */
+	public static CasADiScope open() {
+		CasADiScope scope = new CasADiScope(CURRENT.get());
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	/**
+	 * @return the innermost open scope of the current thread or null.
+	 */
+	static CasADiScope current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * <pre>
+	 * Creates objects which outlive the scopes of the current thread, e.g. entries of caches.
+	 * The open scopes are suspended during the creation. Thus, the created objects are registered with the
+	 * ManualCleaner as if no scope was open. Scopes opened by the creation itself work as usual.
+	 * </pre>
+	 *
+	 * @return the result of the creation.
+	 */
+	public static <T> T untracked(Supplier<T> creation) {
+		CasADiScope suspended = CURRENT.get();
+		if (suspended == null) {
+			return creation.get();
+		}
+		CURRENT.remove();
+		try {
+			return creation.get();
+		} finally {
+			CURRENT.set(suspended);
+		}
+	}
+
+	void track(ManualCleaner cleaner, Object referent, Runnable cleanupAction) {
+		this.entries.add(new Entry(cleaner, referent, cleanupAction));
+	}
+
+	/**
+	 * <pre>
+	 * Excludes the proxy object from deletion at the end of this scope.
+	 * For wrapper classes of the api, pass the wrapped object (getCasADiObject()).
+	 * Objects which were not created within this scope, or have already escaped it, are rejected: passing the wrapper
+	 * instead of the wrapped object would otherwise silently leave the latter to be deleted on close.
+	 * </pre>
+	 *
+	 * @return the given proxy object.
+	 * @throws IllegalArgumentException if the proxy object is not deleted at the end of this scope.
+	 */
+	public <T> T escape(T proxy) {
+		assertOpenOnOwner();
+		// Escaped objects are usually among the latest ones created.
+		for (int i = this.entries.size() - 1; i >= 0; --i) {
+			Entry entry = this.entries.get(i);
+			if (entry.referent() == proxy) {
+				this.entries.remove(i);
+				handOver(entry);
+				return proxy;
+			}
+		}
+		throw new IllegalArgumentException("The object was not created within this scope or has already escaped it.");
+	}
+
+	private void handOver(Entry entry) {
+		if (this.parent != null) {
+			this.parent.entries.add(entry);
+		} else {
+			entry.cleaner().registerUnscoped(entry.referent(), entry.cleanupAction());
+		}
+	}
+
+	/**
+	 * @return number of objects which will be deleted on close.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Deletes all objects created within this scope which have not escaped, in reverse order of creation.
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		assertOpenOnOwner();
+		if (CURRENT.get() != this) {
+			throw new IllegalStateException("Scopes must be closed in reverse order of opening.");
+		}
+		this.closed = true;
+		if (this.parent != null) {
+			CURRENT.set(this.parent);
+		} else {
+			CURRENT.remove();
+		}
+
+		RuntimeException firstFailure = null;
+		for (int i = this.entries.size() - 1; i >= 0; --i) {
+			Entry entry = this.entries.get(i);
+			try {
+				entry.cleaner().freeScoped(entry.cleanupAction());
+			} catch (RuntimeException ex) {
+				if (firstFailure == null) {
+					firstFailure = ex;
+				}
+			}
+		}
+		this.entries.clear();
+		if (firstFailure != null) {
+			throw firstFailure;
+		}
+	}
+
+	private void assertOpenOnOwner() {
+		if (this.closed) {
+			throw new IllegalStateException("The scope is already closed.");
+		}
+		if (Thread.currentThread() != this.owner) {
+			throw new IllegalStateException("A scope must only be used by the thread which opened it.");
+		}
+	}
+}
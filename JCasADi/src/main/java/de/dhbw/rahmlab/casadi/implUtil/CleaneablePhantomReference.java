@@ -2,38 +2,31 @@ package de.dhbw.rahmlab.casadi.implUtil;
 
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
-import java.util.function.Function;
 
 /**
  * <pre>
- * Not thread-safe.
+ * Registration and cleanup are as thread-safe as the registry of the ManualCleaner.
  * Package-private.
  * </pre>
  */
 final class CleaneablePhantomReference extends PhantomReference<Object> {
 
 	/**
-	 * Prevents CleaneablePhantomReference from being garbage collected before enqueued.
+	 * @param registeredRefs Prevents CleaneablePhantomReference from being garbage collected before enqueued.
 	 */
-	private static final FixedIndexList<CleaneablePhantomReference> registeredRefs = new FixedIndexList<>(1024);
-
-	private static Function<Integer, CleaneablePhantomReference> createRef(Object referent, ReferenceQueue<Object> referenceQueue, Runnable cleanupAction) {
-		return (Integer index) -> {
-			return new CleaneablePhantomReference(referent, referenceQueue, cleanupAction, index);
-		};
-	}
-
-	public static void createRegister(Object referent, ReferenceQueue<Object> referenceQueue, Runnable cleanupAction) {
-		var refBuilder = createRef(referent, referenceQueue, cleanupAction);
-		registeredRefs.put(refBuilder);
+	public static void createRegister(Object referent, ReferenceQueue<Object> referenceQueue, Runnable cleanupAction, IndexList<CleaneablePhantomReference> registeredRefs) {
+		final int index = registeredRefs.acquireIndex();
+		registeredRefs.set(index, new CleaneablePhantomReference(referent, referenceQueue, cleanupAction, registeredRefs, index));
 	}
 
 	private final Runnable cleanupAction;
+	private final IndexList<CleaneablePhantomReference> registeredRefs;
 	private final int index;
 
-	private CleaneablePhantomReference(Object referent, ReferenceQueue<Object> q, Runnable cleanupAction, int index) {
+	private CleaneablePhantomReference(Object referent, ReferenceQueue<Object> q, Runnable cleanupAction, IndexList<CleaneablePhantomReference> registeredRefs, int index) {
 		super(referent, q);
 		this.cleanupAction = cleanupAction;
+		this.registeredRefs = registeredRefs;
 		this.index = index;
 	}
 
@@ -47,7 +40,7 @@ final class CleaneablePhantomReference extends PhantomReference<Object> {
 		try {
 			this.cleanupAction.run();
 		} finally {
-			registeredRefs.remove(this.index);
+			this.registeredRefs.remove(this.index);
 		}
 	}
 }
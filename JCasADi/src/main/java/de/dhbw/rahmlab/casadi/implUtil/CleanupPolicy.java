@@ -0,0 +1,75 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * Decides when a ManualCleaner drains its reference queue on its own.
+ * All triggers are evaluated within ManualCleaner.register(), hence on the thread which creates the objects.
+ * A threshold of 0 (or a null interval) disables the corresponding trigger.
+ * Immutable.
+ * </pre>
+ *
+ * @param allocationThreshold Cleanup after this many registrations since the last cleanup.
+ * @param nativeByteThreshold Cleanup if the estimated native memory of not yet freed objects exceeds this many bytes.
+ * @param estimatedBytesPerObject Estimated native memory held by a single registered object.
+ * @param interval Cleanup if the last cleanup is at least this long ago.
+ */
+public record CleanupPolicy(long allocationThreshold, long nativeByteThreshold, long estimatedBytesPerObject, Duration interval) {
+
+	/**
+	 * Only explicit calls of ManualCleaner.cleanupUnreachable() free objects.
+	 */
+	public static final CleanupPolicy MANUAL = new CleanupPolicy(0, 0, 0, null);
+
+	public static final long DEFAULT_BYTES_PER_OBJECT = 256;
+
+	public CleanupPolicy {
+		if (allocationThreshold < 0 || nativeByteThreshold < 0 || estimatedBytesPerObject < 0) {
+			throw new IllegalArgumentException("Thresholds and estimates must not be negative.");
+		}
+		if (interval != null && (interval.isNegative() || interval.isZero())) {
+			throw new IllegalArgumentException("The interval must be positive.");
+		}
+	}
+
+	public static CleanupPolicy everyAllocations(long allocationThreshold) {
+		return MANUAL.withAllocationThreshold(allocationThreshold);
+	}
+
+	public static CleanupPolicy everyNativeBytes(long nativeByteThreshold) {
+		return MANUAL.withNativeByteThreshold(nativeByteThreshold, DEFAULT_BYTES_PER_OBJECT);
+	}
+
+	public static CleanupPolicy every(Duration interval) {
+		return MANUAL.withInterval(interval);
+	}
+
+	public CleanupPolicy withAllocationThreshold(long allocationThreshold) {
+		return new CleanupPolicy(allocationThreshold, this.nativeByteThreshold, this.estimatedBytesPerObject, this.interval);
+	}
+
+	public CleanupPolicy withNativeByteThreshold(long nativeByteThreshold, long estimatedBytesPerObject) {
+		return new CleanupPolicy(this.allocationThreshold, nativeByteThreshold, estimatedBytesPerObject, this.interval);
+	}
+
+	public CleanupPolicy withInterval(Duration interval) {
+		return new CleanupPolicy(this.allocationThreshold, this.nativeByteThreshold, this.estimatedBytesPerObject, interval);
+	}
+
+	public boolean isManual() {
+		return this.allocationThreshold == 0 && this.nativeByteThreshold == 0 && this.interval == null;
+	}
+
+	boolean allocationsDue(long allocationsSinceCleanup) {
+		return this.allocationThreshold > 0 && allocationsSinceCleanup >= this.allocationThreshold;
+	}
+
+	boolean nativeBytesDue(long pendingObjects) {
+		return this.nativeByteThreshold > 0 && pendingObjects * this.estimatedBytesPerObject >= this.nativeByteThreshold;
+	}
+
+	boolean intervalDue(long nanosSinceCleanup) {
+		return this.interval != null && nanosSinceCleanup >= this.interval.toNanos();
+	}
+}
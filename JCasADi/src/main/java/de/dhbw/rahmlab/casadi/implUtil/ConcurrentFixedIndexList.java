@@ -0,0 +1,178 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <pre>
+ * The operations in this list do not move the objects once inserted.
+ * Thread-safe and lock-free.
+ *
+ * Storage is split into chunks which are allocated on demand and never copied.
+ * Free indices are kept in a stack of primitive ints which is threaded through the chunks (Treiber stack).
+ * The head of the stack carries a version to rule out ABA problems.
+ * Compared to FixedIndexList, neither indices are boxed nor are builder lambdas needed.
+ * Used by cleaners shared between threads. Cleaners confined to one thread use PrimitiveFixedIndexList,
+ * which avoids the two atomic operations per register/remove cycle.
+ * </pre>
+ */
+public final class ConcurrentFixedIndexList<T> implements IndexList<T> {
+
+	private static final int CHUNK_BITS = 15;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int MAX_CHUNKS = 1 << (Integer.SIZE - 1 - CHUNK_BITS);
+
+	private static final int NO_INDEX = -1;
+
+	private static final class Chunk<T> {
+
+		private final AtomicReferenceArray<T> payload = new AtomicReferenceArray<>(CHUNK_SIZE);
+		/**
+		 * Next free index for every free index within this chunk. Only meaningful while the index is free.
+		 * Written before and read after a volatile access of the stack head.
+		 */
+		private final int[] nextGap = new int[CHUNK_SIZE];
+	}
+
+	private final AtomicReferenceArray<Chunk<T>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+	/**
+	 * Upper 32 bits: version. Lower 32 bits: index of the top of the stack of gaps.
+	 */
+	private final AtomicLong gapsHead = new AtomicLong(pack(NO_INDEX, 0));
+
+	/**
+	 * Smallest index which was never handed out.
+	 */
+	private final AtomicInteger untouched = new AtomicInteger(0);
+
+	public ConcurrentFixedIndexList() {
+		this(CHUNK_SIZE);
+	}
+
+	/**
+	 * @param initialCapacity number of indices for which storage is allocated upfront.
+	 */
+	public ConcurrentFixedIndexList(int initialCapacity) {
+		int initialChunks = Math.min(MAX_CHUNKS, (initialCapacity + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+		for (int i = 0; i < initialChunks; ++i) {
+			this.chunks.set(i, new Chunk<>());
+		}
+	}
+
+	private static long pack(int index, int version) {
+		return ((long) version << Integer.SIZE) | (index & 0xFFFFFFFFL);
+	}
+
+	private static int index(long head) {
+		return (int) head;
+	}
+
+	private static int version(long head) {
+		return (int) (head >>> Integer.SIZE);
+	}
+
+	private Chunk<T> chunk(int index) {
+		return this.chunks.get(index >>> CHUNK_BITS);
+	}
+
+	private Chunk<T> ensureChunk(int index) {
+		final int chunkIndex = index >>> CHUNK_BITS;
+		Chunk<T> chunk = this.chunks.get(chunkIndex);
+		if (chunk == null) {
+			this.chunks.compareAndSet(chunkIndex, null, new Chunk<>());
+			chunk = this.chunks.get(chunkIndex);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Payload at returned index must be set afterwards.
+	 *
+	 * @return an index which is not in use.
+	 */
+	@Override
+	public int acquireIndex() {
+		for (;;) {
+			final long head = this.gapsHead.get();
+			final int gap = index(head);
+			if (gap == NO_INDEX) {
+				break;
+			}
+			// Might read a stale value if the gap was taken concurrently. The versioned CAS fails in that case.
+			final int next = chunk(gap).nextGap[gap & CHUNK_MASK];
+			if (this.gapsHead.compareAndSet(head, pack(next, version(head) + 1))) {
+				return gap;
+			}
+		}
+		final int index = this.untouched.getAndIncrement();
+		if (index < 0 || (index >>> CHUNK_BITS) >= MAX_CHUNKS) {
+			this.untouched.getAndDecrement();
+			throw new IllegalStateException("Capacity exhausted.");
+		}
+		ensureChunk(index);
+		return index;
+	}
+
+	/**
+	 * Sets the payload at an index obtained by acquireIndex().
+	 */
+	@Override
+	public void set(int index, T t) {
+		chunk(index).payload.setRelease(index & CHUNK_MASK, t);
+	}
+
+	/**
+	 *
+	 * @return index of the inserted element.
+	 */
+	public int put(T t) {
+		final int index = acquireIndex();
+		set(index, t);
+		return index;
+	}
+
+	/**
+	 *
+	 * @return the element at the specified position in this list
+	 */
+	@Override
+	public T get(int index) {
+		return chunk(index).payload.getAcquire(index & CHUNK_MASK);
+	}
+
+	/**
+	 * Must be invoked at most once per acquired index.
+	 *
+	 * @return the element previously at the specified position
+	 */
+	@Override
+	public T remove(int index) {
+		final Chunk<T> chunk = chunk(index);
+		final int offset = index & CHUNK_MASK;
+		// The index is owned by the caller until it is pushed onto the stack of gaps.
+		final T previous = chunk.payload.getAcquire(offset);
+		chunk.payload.setRelease(offset, null);
+		for (;;) {
+			final long head = this.gapsHead.get();
+			chunk.nextGap[offset] = index(head);
+			if (this.gapsHead.compareAndSet(head, pack(index, version(head) + 1))) {
+				return previous;
+			}
+		}
+	}
+
+	/**
+	 * @return number of indices currently in use. Only a snapshot under concurrent modification.
+	 */
+	@Override
+	public int size() {
+		int gaps = 0;
+		for (int gap = index(this.gapsHead.get()); gap != NO_INDEX; gap = chunk(gap).nextGap[gap & CHUNK_MASK]) {
+			++gaps;
+		}
+		return this.untouched.get() - gaps;
+	}
+}
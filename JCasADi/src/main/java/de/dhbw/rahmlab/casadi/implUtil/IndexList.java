@@ -0,0 +1,40 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+/**
+ * <pre>
+ * List whose elements keep their index until removed.
+ * Package-private. Implemented by ConcurrentFixedIndexList and PrimitiveFixedIndexList.
+ * </pre>
+ */
+interface IndexList<T> {
+
+	/**
+	 * Payload at returned index must be set afterwards.
+	 *
+	 * @return an index which is not in use.
+	 */
+	int acquireIndex();
+
+	/**
+	 * Sets the payload at an index obtained by acquireIndex().
+	 */
+	void set(int index, T t);
+
+	/**
+	 *
+	 * @return the element at the specified position in this list
+	 */
+	T get(int index);
+
+	/**
+	 * Must be invoked at most once per acquired index.
+	 *
+	 * @return the element previously at the specified position
+	 */
+	T remove(int index);
+
+	/**
+	 * @return number of indices currently in use.
+	 */
+	int size();
+}
@@ -1,26 +1,325 @@
 package de.dhbw.rahmlab.casadi.implUtil;
 
 import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
 
 /**
- * Not thread-safe.
+ * <pre>
+ * A cleaner is either shared or confined to a single thread. Both have an owner thread.
+ * A confined cleaner (one per CasADiExecutor thread) is owned by the thread it is bound to and must only be used
+ * by that thread.
+ * The owner of a shared cleaner (WrapUtil.MANUAL_CLEANER) is the first thread which registers an object, or the next
+ * thread cleaning up once the owner has terminated.
+ *
+ * The owner registers its objects in a PrimitiveFixedIndexList and updates the counters of its objects without atomic
+ * read-modify-write operations. Thus, a shared cleaner used by a single thread is as fast as a confined one.
+ * Other threads register their objects with a shared cleaner in a ConcurrentFixedIndexList. For them, register()
+ * is thread-safe.
+ * The objects of the owner are only freed by cleanups on the owner. The objects of other threads are freed by
+ * cleanups on any thread. Hence a shared cleaner must be cleaned up by its owner regularly.
+ * The counters may be read from any thread. They are only a snapshot.
+ *
+ * Without a CleanupPolicy, only explicit calls of cleanupUnreachable() free objects.
+ * With a CleanupPolicy, register() also drains the queues if the policy is due.
+ * The policy is only evaluated on the owner of the cleaner.
+ * Thus, cleanup driven by the policy happens on the thread which creates and uses most objects, and never on a thread
+ * which only temporarily uses the shared cleaner, e.g. a task of CasADiExecutor.submitShared().
+ * Objects created within a CasADiScope are deleted when the scope is closed.
+ * </pre>
  */
 public class ManualCleaner {
 
-	private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+	/**
+	 * <pre>
+	 * The registered objects of either the owner or the other threads, with their counters.
+	 * The lane of the owner has a single writer and updates its counters with a plain increment with release
+	 * semantics. The lane of the other threads increments them atomically.
+	 * </pre>
+	 */
+	private static final class Lane {
 
+		private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+		private final IndexList<CleaneablePhantomReference> registeredRefs;
+		private final boolean singleWriter;
+
+		private final AtomicLong registeredCount = new AtomicLong();
+		private final AtomicLong enqueuedCount = new AtomicLong();
+		private final AtomicLong freedCount = new AtomicLong();
+		private final AtomicLong allocationsSinceCleanup = new AtomicLong();
+
+		private Lane(boolean singleWriter) {
+			this.singleWriter = singleWriter;
+			this.registeredRefs = singleWriter ? new PrimitiveFixedIndexList<>() : new ConcurrentFixedIndexList<>();
+		}
+
+		private void increment(AtomicLong counter) {
+			if (this.singleWriter) {
+				counter.setRelease(counter.getPlain() + 1);
+			} else {
+				counter.getAndIncrement();
+			}
+		}
+
+		private void register(Object referent, Runnable cleanupAction) {
+			CleaneablePhantomReference.createRegister(referent, this.referenceQueue, cleanupAction, this.registeredRefs);
+		}
+
+		private int cleanupUnreachable() {
+			int freed = 0;
+			CleaneablePhantomReference ref;
+			for (;;) {
+				ref = (CleaneablePhantomReference) this.referenceQueue.poll();
+				if (ref == null) {
+					return freed;
+				}
+				increment(this.enqueuedCount);
+				ref.cleanup();
+				increment(this.freedCount);
+				++freed;
+			}
+		}
+	}
+
+	private final Lane ownerLane = new Lane(true);
+	/**
+	 * Null for a confined cleaner.
+	 */
+	private final Lane sharedLane;
+	private final boolean confined;
+	private volatile Thread owner;
+
+	private CleanupPolicy policy = CleanupPolicy.MANUAL;
+
+	/**
+	 * Written only by the owner.
+	 */
+	private long lastCleanupNanos = System.nanoTime();
+	/**
+	 * Pending objects at the time of the last requested garbage collection. Accessed only by the owner.
+	 */
+	private long pendingAtLastGc = 0;
+
+	/**
+	 * A cleaner shared between threads.
+	 */
+	public ManualCleaner() {
+		this(false);
+	}
+
+	private ManualCleaner(boolean confined) {
+		this.confined = confined;
+		this.sharedLane = confined ? null : new Lane(false);
+	}
+
+	/**
+	 * <pre>
+	 * A cleaner confined to the thread it is bound to by WrapUtil.bindCleaner().
+	 * Registration on any other thread throws.
+	 * </pre>
+	 */
+	static ManualCleaner confined() {
+		return new ManualCleaner(true);
+	}
+
+	void bindOwner(Thread owner) {
+		if (this.confined && this.owner != null && this.owner != owner) {
+			throw new IllegalStateException("The cleaner is already owned by " + this.owner.getName() + ".");
+		}
+		this.owner = owner;
+	}
+
+	public boolean isConfined() {
+		return this.confined;
+	}
+
+	/**
+	 * <pre>
+	 * Whether the current thread is the owner.
+	 * A shared cleaner is claimed by the first thread and taken over from a terminated owner. The termination of the
+	 * former owner happens-before the take-over, thus its writes of the lane of the owner and of the policy state
+	 * are visible.
+	 * </pre>
+	 */
+	private boolean isOwner() {
+		final Thread current = Thread.currentThread();
+		Thread currentOwner = this.owner;
+		if (currentOwner == current) {
+			return true;
+		}
+		if (this.confined || (currentOwner != null && currentOwner.isAlive())) {
+			return false;
+		}
+		synchronized (this) {
+			if (this.owner == currentOwner) {
+				this.owner = current;
+				return true;
+			}
+			return this.owner == current;
+		}
+	}
+
+	/**
+	 * The owner of a shared cleaner is only taken over by cleanups, to keep isAlive() off the path of registration.
+	 */
+	private Lane laneOfCurrentThread() {
+		final Thread currentOwner = this.owner;
+		if (currentOwner == Thread.currentThread()) {
+			return this.ownerLane;
+		}
+		if (currentOwner == null && isOwner()) {
+			return this.ownerLane;
+		}
+		return this.sharedLane;
+	}
+
+	private void assertOwner() {
+		if (this.confined && Thread.currentThread() != this.owner) {
+			throw new IllegalStateException("The cleaner is confined to " + (this.owner == null ? "no thread" : this.owner.getName())
+				+ " and must not be used by " + Thread.currentThread().getName() + ".");
+		}
+	}
+
+	/**
+	 * <pre>
+	 * Objects created within an open CasADiScope of the current thread are deleted when the scope is closed
+	 * instead of being tracked via the reference queue.
+	 * </pre>
+	 */
 	public void register(Object referent, Runnable cleanupAction) {
-		CleaneablePhantomReference.createRegister(referent, this.referenceQueue, cleanupAction);
+		assertOwner();
+		final Lane lane = laneOfCurrentThread();
+		CasADiScope scope = CasADiScope.current();
+		if (scope != null) {
+			scope.track(this, referent, cleanupAction);
+		} else {
+			lane.register(referent, cleanupAction);
+		}
+		lane.increment(lane.registeredCount);
+		lane.increment(lane.allocationsSinceCleanup);
+		if (!this.policy.isManual() && lane == this.ownerLane) {
+			cleanupIfDue();
+		}
+	}
+
+	/**
+	 * For objects escaping the outermost CasADiScope. Already counted as registered.
+	 */
+	void registerUnscoped(Object referent, Runnable cleanupAction) {
+		laneOfCurrentThread().register(referent, cleanupAction);
+	}
+
+	/**
+	 * For objects deleted by closing a CasADiScope.
+	 */
+	void freeScoped(Runnable cleanupAction) {
+		cleanupAction.run();
+		final Lane lane = laneOfCurrentThread();
+		lane.increment(lane.freedCount);
+	}
+
+	/**
+	 * <pre>
+	 * Frees the unreachable objects of the current thread, if it is the owner, and of all other threads.
+	 * </pre>
+	 *
+	 * @return number of freed objects.
+	 */
+	public int cleanupUnreachable() {
+		assertOwner();
+		int freed = 0;
+		if (isOwner()) {
+			this.ownerLane.allocationsSinceCleanup.setRelease(0);
+			if (this.sharedLane != null) {
+				this.sharedLane.allocationsSinceCleanup.set(0);
+			}
+			this.lastCleanupNanos = System.nanoTime();
+			freed += this.ownerLane.cleanupUnreachable();
+		}
+		if (this.sharedLane != null) {
+			freed += this.sharedLane.cleanupUnreachable();
+		}
+		return freed;
 	}
 
-	public void cleanupUnreachable() {
-		CleaneablePhantomReference ref;
-		for (;;) {
-			ref = (CleaneablePhantomReference) this.referenceQueue.poll();
-			if (ref == null) {
-				return;
+	/**
+	 * <pre>
+	 * Cleans up if the policy is due. Useful to also honor the interval while no objects are created.
+	 * Does nothing if called by another thread than the owner.
+	 * The native memory held by CasADi objects is invisible to the JVM. Hence, if the native byte estimate
+	 * is still exceeded after draining the queue, a garbage collection is requested. This happens at most once
+	 * per additional native byte threshold worth of pending objects.
+	 * </pre>
+	 *
+	 * @return number of freed objects.
+	 */
+	public int cleanupIfDue() {
+		if (!isOwner()) {
+			return 0;
+		}
+		final CleanupPolicy currentPolicy = this.policy;
+		final boolean bytesDue = currentPolicy.nativeBytesDue(getPendingCount());
+		if (!bytesDue
+			&& !currentPolicy.allocationsDue(sum(lane -> lane.allocationsSinceCleanup.get()))
+			&& !currentPolicy.intervalDue(System.nanoTime() - this.lastCleanupNanos)) {
+			return 0;
+		}
+		int freed = cleanupUnreachable();
+		if (bytesDue) {
+			final long pending = getPendingCount();
+			if (currentPolicy.nativeBytesDue(pending) && currentPolicy.nativeBytesDue(pending - this.pendingAtLastGc)) {
+				this.pendingAtLastGc = pending;
+				System.gc();
+			} else if (pending < this.pendingAtLastGc) {
+				this.pendingAtLastGc = pending;
 			}
-			ref.cleanup();
 		}
+		return freed;
+	}
+
+	private long sum(ToLongFunction<Lane> counter) {
+		final long owned = counter.applyAsLong(this.ownerLane);
+		return this.sharedLane == null ? owned : owned + counter.applyAsLong(this.sharedLane);
+	}
+
+	public void setPolicy(CleanupPolicy policy) {
+		if (policy == null) {
+			throw new IllegalArgumentException("The policy must not be null. Use CleanupPolicy.MANUAL instead.");
+		}
+		this.policy = policy;
+	}
+
+	public CleanupPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * @return number of objects registered for deletion since creation of this cleaner.
+	 */
+	public long getRegisteredCount() {
+		return sum(lane -> lane.registeredCount.get());
+	}
+
+	/**
+	 * @return number of unreachable objects taken from the reference queues.
+	 */
+	public long getEnqueuedCount() {
+		return sum(lane -> lane.enqueuedCount.get());
+	}
+
+	/**
+	 * @return number of objects whose C++ counterpart has been deleted.
+	 */
+	public long getFreedCount() {
+		return sum(lane -> lane.freedCount.get());
+	}
+
+	/**
+	 * @return number of registered objects which are not freed yet. Includes still reachable objects.
+	 */
+	public long getPendingCount() {
+		// Freed first: an object is registered before it is freed, hence the difference is never negative.
+		final long freed = getFreedCount();
+		return getRegisteredCount() - freed;
 	}
 }
@@ -0,0 +1,89 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * The operations in this list do not move the objects once inserted.
+ * Not thread-safe. Single-threaded counterpart of ConcurrentFixedIndexList for cleaners confined to one thread.
+ *
+ * Free indices are kept in a stack of primitive ints. Thus, in contrast to FixedIndexList,
+ * neither indices are boxed nor are builder lambdas needed, and no atomic operations are involved.
+ * </pre>
+ */
+public final class PrimitiveFixedIndexList<T> implements IndexList<T> {
+
+	private Object[] payload;
+	private int[] gaps;
+	private int gapCount = 0;
+
+	/**
+	 * Smallest index which was never handed out.
+	 */
+	private int untouched = 0;
+
+	public PrimitiveFixedIndexList() {
+		this(1024);
+	}
+
+	/**
+	 * @param initialCapacity number of indices for which storage is allocated upfront.
+	 */
+	public PrimitiveFixedIndexList(int initialCapacity) {
+		int capacity = Math.max(16, initialCapacity);
+		this.payload = new Object[capacity];
+		this.gaps = new int[capacity];
+	}
+
+	@Override
+	public int acquireIndex() {
+		if (this.gapCount > 0) {
+			return this.gaps[--this.gapCount];
+		}
+		if (this.untouched == this.payload.length) {
+			if (this.untouched == Integer.MAX_VALUE) {
+				throw new IllegalStateException("Capacity exhausted.");
+			}
+			int capacity = (int) Math.min(Integer.MAX_VALUE, 2L * this.payload.length);
+			this.payload = Arrays.copyOf(this.payload, capacity);
+			// Never more gaps than indices.
+			this.gaps = Arrays.copyOf(this.gaps, capacity);
+		}
+		return this.untouched++;
+	}
+
+	@Override
+	public void set(int index, T t) {
+		this.payload[index] = t;
+	}
+
+	/**
+	 *
+	 * @return index of the inserted element.
+	 */
+	public int put(T t) {
+		final int index = acquireIndex();
+		this.payload[index] = t;
+		return index;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) this.payload[index];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T remove(int index) {
+		final T previous = (T) this.payload[index];
+		this.payload[index] = null;
+		this.gaps[this.gapCount++] = index;
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return this.untouched - this.gapCount;
+	}
+}
@@ -12,11 +12,31 @@ public class WrapUtil {
 	// Fix JVM crashes due to CasADi not being thread-safe.
 	public static final ManualCleaner MANUAL_CLEANER = new ManualCleaner();
 
+	// Threads of a CasADiExecutor clean up their own objects.
+	private static final ThreadLocal<ManualCleaner> THREAD_CLEANER = new ThreadLocal<>();
+
+	/**
+	 * @return the cleaner bound to the current thread or else MANUAL_CLEANER.
+	 */
+	public static ManualCleaner currentCleaner() {
+		ManualCleaner cleaner = THREAD_CLEANER.get();
+		return cleaner != null ? cleaner : MANUAL_CLEANER;
+	}
+
+	static void bindCleaner(ManualCleaner cleaner) {
+		cleaner.bindOwner(Thread.currentThread());
+		THREAD_CLEANER.set(cleaner);
+	}
+
+	static void unbindCleaner() {
+		THREAD_CLEANER.remove();
+	}
+
 	private static Runnable createDeletionRunnable(long swigCPtr, LongConsumer deleteFunction) {
 		return () -> deleteFunction.accept(swigCPtr);
 	}
 
 	public static void REGISTER_DELETION(Object obj, long swigCPtr, LongConsumer deleteFunction) {
-		MANUAL_CLEANER.register(obj, createDeletionRunnable(swigCPtr, deleteFunction));
+		currentCleaner().register(obj, createDeletionRunnable(swigCPtr, deleteFunction));
 	}
 }
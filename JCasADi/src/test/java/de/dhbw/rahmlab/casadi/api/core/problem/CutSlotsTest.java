@@ -0,0 +1,73 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CutSlotsTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    public void unusedSlotsAreUnbounded() {
+        CutSlots slots = new CutSlots(3, 2);
+        assertEquals(0, slots.size());
+        assertEquals(3, slots.remaining());
+        assertArrayEquals(new double[]{INF, INF, INF}, slots.upperBounds());
+        assertArrayEquals(new double[6], slots.coefficients());
+    }
+
+    @Test
+    public void cutsFillSlotsInOrderColumnMajor() {
+        CutSlots slots = new CutSlots(3, 2);
+        assertEquals(0, slots.put(new double[]{1, 2}, 5));
+        assertEquals(1, slots.put(new double[]{3, 4}, 6));
+        assertEquals(2, slots.size());
+        assertEquals(1, slots.remaining());
+        assertTrue(slots.isActive(0));
+        assertTrue(slots.isActive(1));
+        assertArrayEquals(new double[]{1, 3, 0, 2, 4, 0}, slots.coefficients());
+        assertArrayEquals(new double[]{5, 6, INF}, slots.upperBounds());
+    }
+
+    @Test
+    public void deactivatedCutsKeepTheirRightHandSide() {
+        CutSlots slots = new CutSlots(2, 1);
+        slots.put(new double[]{1}, -2);
+        slots.setActive(0, false);
+        assertFalse(slots.isActive(0));
+        assertArrayEquals(new double[]{INF, INF}, slots.upperBounds());
+        assertArrayEquals(new double[]{1, 0}, slots.coefficients());
+        slots.setActive(0, true);
+        assertArrayEquals(new double[]{-2, INF}, slots.upperBounds());
+    }
+
+    @Test
+    public void clearFreesAllSlots() {
+        CutSlots slots = new CutSlots(2, 2);
+        slots.put(new double[]{1, 2}, 3);
+        slots.put(new double[]{4, 5}, 6);
+        slots.clear();
+        assertEquals(0, slots.size());
+        assertEquals(2, slots.remaining());
+        assertArrayEquals(new double[4], slots.coefficients());
+        assertArrayEquals(new double[]{INF, INF}, slots.upperBounds());
+        assertEquals(0, slots.put(new double[]{7, 8}, 9));
+    }
+
+    @Test
+    public void rejectsInvalidCuts() {
+        CutSlots slots = new CutSlots(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> slots.put(new double[]{1}, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> slots.setActive(0, false));
+        slots.put(new double[]{1, 2}, 0);
+        assertThrows(IllegalStateException.class, () -> slots.put(new double[]{1, 2}, 0));
+        assertThrows(IllegalStateException.class, () -> slots.checkFits(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> slots.isActive(1));
+        assertThrows(IllegalArgumentException.class, () -> new CutSlots(0, 2));
+    }
+}
@@ -0,0 +1,56 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResultLayoutTest {
+
+    private static final long X = 11;
+    private static final long Y = 22;
+    private static final long Z = 33;
+
+    // x: 2x1, y: 2x3, z: 1x1
+    private final ResultLayout layout = ResultLayout.of(new long[]{X, Y, Z}, new int[]{2, 2, 1}, new int[]{1, 3, 1});
+
+    @Test
+    public void variablesAreStackedInOrder() {
+        assertEquals(9, this.layout.size());
+        assertEquals(3, this.layout.getNumberOfVariables());
+        assertEquals(new ResultLayout.Block(0, 2, 1), this.layout.get(X));
+        assertEquals(new ResultLayout.Block(2, 2, 3), this.layout.get(Y));
+        assertEquals(new ResultLayout.Block(8, 1, 1), this.layout.get(Z));
+    }
+
+    @Test
+    public void elementsAreColumnMajor() {
+        double[] values = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+        ResultLayout.Block y = this.layout.get(Y);
+        assertEquals(2.0, this.layout.get(values, y, 0, 0));
+        assertEquals(3.0, this.layout.get(values, y, 1, 0));
+        assertEquals(6.0, this.layout.get(values, y, 0, 2));
+        assertEquals(7.0, this.layout.get(values, y, 1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> this.layout.get(values, y, 2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> this.layout.get(values, y, 0, 3));
+    }
+
+    @Test
+    public void slicesAreCopiedToTheOffset() {
+        double[] values = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+        double[] dst = new double[4];
+        this.layout.sliceInto(values, this.layout.get(X), dst, 1);
+        assertArrayEquals(new double[]{0, 0, 1, 0}, dst);
+        this.layout.sliceInto(values, this.layout.get(Z), dst, 3);
+        assertArrayEquals(new double[]{0, 0, 1, 8}, dst);
+    }
+
+    @Test
+    public void rejectsUnknownVariablesAndShortVectors() {
+        assertThrows(IllegalArgumentException.class, () -> this.layout.get(44));
+        ResultLayout.Block x = this.layout.get(X);
+        assertThrows(IllegalArgumentException.class, () -> this.layout.sliceInto(new double[8], x, new double[2], 0));
+        assertThrows(IllegalArgumentException.class, () -> this.layout.get(new double[8], x, 0, 0));
+    }
+}
@@ -0,0 +1,63 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SobolSequenceTest {
+
+    /**
+     * The points 1 to 7 of the reference implementation of Joe and Kuo (sobol.cc with new-joe-kuo-6.21201).
+     */
+    private static final double[][] JOE_KUO = {
+        {0.5, 0.5, 0.5},
+        {0.75, 0.25, 0.25},
+        {0.25, 0.75, 0.75},
+        {0.375, 0.375, 0.625},
+        {0.875, 0.875, 0.125},
+        {0.625, 0.125, 0.875},
+        {0.125, 0.625, 0.375}
+    };
+
+    @Test
+    public void matchesJoeKuoReferencePoints() {
+        SobolSequence sequence = new SobolSequence(3);
+        for (double[] expected : JOE_KUO) {
+            assertArrayEquals(expected, sequence.next());
+        }
+    }
+
+    /**
+     * Together with the origin, the first 2^m points hit every interval [k / 2^m, (k + 1) / 2^m) exactly once in
+     * every dimension. Checks the direction numbers of all dimensions.
+     */
+    @Test
+    public void everyDimensionIsStratified() {
+        final int m = 10;
+        final int count = 1 << m;
+        SobolSequence sequence = new SobolSequence(SobolSequence.MAX_DIMENSION);
+        boolean[][] hit = new boolean[SobolSequence.MAX_DIMENSION][count];
+        for (boolean[] dimension : hit) {
+            dimension[0] = true;
+        }
+        for (int i = 1; i < count; ++i) {
+            double[] point = sequence.next();
+            for (int d = 0; d < point.length; ++d) {
+                assertTrue(point[d] >= 0.0 && point[d] < 1.0);
+                int interval = (int) (point[d] * count);
+                assertEquals(interval, point[d] * count, 0.0, "Not a multiple of 2^-m in dimension " + d + ".");
+                assertTrue(!hit[d][interval], "Interval " + interval + " hit twice in dimension " + d + ".");
+                hit[d][interval] = true;
+            }
+        }
+    }
+
+    @Test
+    public void rejectsUnsupportedDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new SobolSequence(0));
+        assertThrows(IllegalArgumentException.class, () -> new SobolSequence(SobolSequence.MAX_DIMENSION + 1));
+    }
+}
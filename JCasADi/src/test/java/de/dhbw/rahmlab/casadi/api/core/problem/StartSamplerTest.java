@@ -0,0 +1,56 @@
+package de.dhbw.rahmlab.casadi.api.core.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartSamplerTest {
+
+    private static final double[] LOWER = {-1.0, 0.0, 10.0};
+    private static final double[] UPPER = {1.0, 5.0, 10.5};
+
+    @Test
+    public void latinHypercubeHasOnePointPerStratum() {
+        final int count = 50;
+        double[][] samples = StartSampler.latinHypercube(7).sample(count, LOWER, UPPER);
+        assertEquals(count, samples.length);
+        for (int d = 0; d < LOWER.length; ++d) {
+            boolean[] hit = new boolean[count];
+            for (double[] sample : samples) {
+                double unit = (sample[d] - LOWER[d]) / (UPPER[d] - LOWER[d]);
+                int stratum = Math.min((int) (unit * count), count - 1);
+                assertTrue(!hit[stratum], "Stratum " + stratum + " hit twice in dimension " + d + ".");
+                hit[stratum] = true;
+            }
+        }
+    }
+
+    @Test
+    public void samplersAreReproducible() {
+        assertArrayEquals(StartSampler.latinHypercube(3).sample(10, LOWER, UPPER)[4],
+                StartSampler.latinHypercube(3).sample(10, LOWER, UPPER)[4]);
+        assertArrayEquals(StartSampler.uniform(3).sample(10, LOWER, UPPER)[4],
+                StartSampler.uniform(3).sample(10, LOWER, UPPER)[4]);
+    }
+
+    @Test
+    public void samplesAreWithinTheBox() {
+        StartSampler[] samplers = {StartSampler.uniform(1), StartSampler.latinHypercube(1), StartSampler.sobol()};
+        for (StartSampler sampler : samplers) {
+            for (double[] sample : sampler.sample(100, LOWER, UPPER)) {
+                assertEquals(LOWER.length, sample.length);
+                for (int d = 0; d < LOWER.length; ++d) {
+                    assertTrue(sample[d] >= LOWER[d] && sample[d] <= UPPER[d]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sobolIsScaledIntoTheBox() {
+        double[] first = StartSampler.sobol().sample(1, LOWER, UPPER)[0];
+        assertArrayEquals(new double[]{0.0, 2.5, 10.25}, first);
+    }
+}
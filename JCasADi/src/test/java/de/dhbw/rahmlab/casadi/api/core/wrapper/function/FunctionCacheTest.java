@@ -0,0 +1,39 @@
+package de.dhbw.rahmlab.casadi.api.core.wrapper.function;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiScope;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FunctionCacheTest {
+
+    /**
+     * A function cached within a scope must stay alive after the scope is closed.
+     */
+    @Test
+    public void entriesCreatedInAScopeOutliveTheScope() {
+        FunctionCache cache = new FunctionCache(4);
+        MXWrapper x = MXWrapper.sym("x");
+        MXVector in = new MXVector(x);
+        MXVector out = new MXVector(x.sin().add(x));
+
+        FunctionWrapper cached;
+        CasADiScope scope = CasADiScope.open();
+        try {
+            cached = cache.get("f", in, out);
+            assertEquals(0.0, cached.call(new DMWrapper(0.0)).get(0).scalar(), 1e-12);
+        } finally {
+            scope.close();
+        }
+        assertEquals(1, cache.getMisses());
+
+        FunctionWrapper hit = cache.get("f", in, out);
+        assertSame(cached, hit);
+        assertEquals(1, cache.getHits());
+        assertEquals(Math.sin(1.0) + 1.0, hit.call(new DMWrapper(1.0)).get(0).scalar(), 1e-12);
+    }
+}
@@ -0,0 +1,57 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CasADiExecutorTest {
+
+	@Test
+	public void tasksRunWithTheCleanerOfTheirThread() throws Exception {
+		try (CasADiExecutor executor = new CasADiExecutor(2)) {
+			CompletableFuture<Boolean> confined = executor.submit(() -> WrapUtil.currentCleaner().isConfined());
+			assertEquals(Boolean.TRUE, confined.get(1, TimeUnit.MINUTES));
+		}
+		assertSame(WrapUtil.MANUAL_CLEANER, WrapUtil.currentCleaner());
+	}
+
+	@Test
+	public void sharedTasksRunWithTheSharedCleaner() throws Exception {
+		try (CasADiExecutor executor = new CasADiExecutor(1)) {
+			CompletableFuture<ManualCleaner> shared = executor.submitShared(WrapUtil::currentCleaner);
+			assertSame(WrapUtil.MANUAL_CLEANER, shared.get(1, TimeUnit.MINUTES));
+			CompletableFuture<Boolean> confined = executor.submit(() -> WrapUtil.currentCleaner().isConfined());
+			assertEquals(Boolean.TRUE, confined.get(1, TimeUnit.MINUTES));
+		}
+	}
+
+	/**
+	 * A failing deletion must not kill the worker thread. Otherwise, the following futures would never complete.
+	 */
+	@Test
+	public void failingDeletionDoesNotStopTheWorker() throws Exception {
+		AtomicInteger failedDeletions = new AtomicInteger();
+		try (CasADiExecutor executor = new CasADiExecutor(1)) {
+			executor.submit(() -> {
+				WrapUtil.currentCleaner().register(new Object(), () -> {
+					failedDeletions.incrementAndGet();
+					throw new IllegalStateException("Deletion failed.");
+				});
+				return null;
+			}).get(1, TimeUnit.MINUTES);
+
+			for (int i = 0; i < 50 && failedDeletions.get() == 0; ++i) {
+				executor.submit(() -> {
+					System.gc();
+					Thread.sleep(10);
+					return null;
+				}).get(1, TimeUnit.MINUTES);
+			}
+			assertEquals(Integer.valueOf(42), executor.submit(() -> 42).get(1, TimeUnit.MINUTES));
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CasADiScopeTest {
+
+	private final ManualCleaner cleaner = ManualCleaner.confined();
+	private final List<String> deleted = new ArrayList<>();
+
+	public CasADiScopeTest() {
+		this.cleaner.bindOwner(Thread.currentThread());
+	}
+
+	private Object create(String name) {
+		Object proxy = new Object();
+		this.cleaner.register(proxy, () -> this.deleted.add(name));
+		return proxy;
+	}
+
+	@Test
+	public void objectsAreDeletedInReverseOrderOfCreation() {
+		try (CasADiScope scope = CasADiScope.open()) {
+			create("a");
+			create("b");
+			create("c");
+			assertEquals(3, scope.size());
+		}
+		assertEquals(List.of("c", "b", "a"), this.deleted);
+		assertNull(CasADiScope.current());
+	}
+
+	@Test
+	public void escapedObjectsMoveToTheEnclosingScope() {
+		try (CasADiScope outer = CasADiScope.open()) {
+			create("outer");
+			try (CasADiScope inner = CasADiScope.open()) {
+				assertSame(inner, CasADiScope.current());
+				create("tmp");
+				Object result = create("result");
+				assertSame(result, inner.escape(result));
+				assertEquals(1, inner.size());
+				assertEquals(2, outer.size());
+			}
+			assertEquals(List.of("tmp"), this.deleted);
+			assertSame(outer, CasADiScope.current());
+		}
+		assertEquals(List.of("tmp", "result", "outer"), this.deleted);
+	}
+
+	@Test
+	public void objectsEscapingTheOutermostScopeAreLeftToTheCleaner() {
+		try (CasADiScope scope = CasADiScope.open()) {
+			create("tmp");
+			Object result = scope.escape(create("result"));
+			assertThrows(IllegalArgumentException.class, () -> scope.escape(result));
+			assertThrows(IllegalArgumentException.class, () -> scope.escape(new Object()));
+			assertEquals(1, scope.size());
+		}
+		assertEquals(List.of("tmp"), this.deleted);
+		assertEquals(1, this.cleaner.getPendingCount());
+		assertEquals(2, this.cleaner.getRegisteredCount());
+	}
+
+	@Test
+	public void untrackedObjectsOutliveTheScope() {
+		try (CasADiScope scope = CasADiScope.open()) {
+			create("tmp");
+			Object cached = CasADiScope.untracked(() -> create("cached"));
+			assertThrows(IllegalArgumentException.class, () -> scope.escape(cached));
+			assertSame(scope, CasADiScope.current());
+			assertEquals(1, scope.size());
+		}
+		assertEquals(List.of("tmp"), this.deleted);
+		assertEquals(1, this.cleaner.getPendingCount());
+	}
+
+	@Test
+	public void scopesMustBeClosedInReverseOrder() {
+		CasADiScope outer = CasADiScope.open();
+		CasADiScope inner = CasADiScope.open();
+		assertThrows(IllegalStateException.class, outer::close);
+		inner.close();
+		outer.close();
+		// Closing twice is a no-op.
+		outer.close();
+		assertThrows(IllegalStateException.class, () -> outer.escape(new Object()));
+		assertNull(CasADiScope.current());
+	}
+
+	@Test
+	public void scopesAreConfinedToTheirThread() throws Exception {
+		try (CasADiScope scope = CasADiScope.open()) {
+			assertNull(CompletableFuture.supplyAsync(CasADiScope::current).get());
+			CompletableFuture<Throwable> other = CompletableFuture.supplyAsync(() -> {
+				try {
+					scope.escape(new Object());
+					return null;
+				} catch (IllegalStateException ex) {
+					return ex;
+				}
+			});
+			assertTrue(other.get() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void failingDeletionDoesNotStopTheOthers() {
+		CasADiScope scope = CasADiScope.open();
+		create("a");
+		this.cleaner.register(new Object(), () -> {
+			throw new IllegalStateException("Deletion failed.");
+		});
+		create("c");
+		assertThrows(IllegalStateException.class, scope::close);
+		assertEquals(List.of("c", "a"), this.deleted);
+		assertNull(CasADiScope.current());
+	}
+}
@@ -0,0 +1,71 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CleanupPolicyTest {
+
+	@Test
+	public void manualPolicyIsNeverDue() {
+		CleanupPolicy policy = CleanupPolicy.MANUAL;
+		assertTrue(policy.isManual());
+		assertFalse(policy.allocationsDue(Long.MAX_VALUE));
+		assertFalse(policy.nativeBytesDue(Long.MAX_VALUE / CleanupPolicy.DEFAULT_BYTES_PER_OBJECT));
+		assertFalse(policy.intervalDue(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void allocationThresholdIsInclusive() {
+		CleanupPolicy policy = CleanupPolicy.everyAllocations(100);
+		assertFalse(policy.isManual());
+		assertFalse(policy.allocationsDue(99));
+		assertTrue(policy.allocationsDue(100));
+		assertFalse(policy.nativeBytesDue(Long.MAX_VALUE / CleanupPolicy.DEFAULT_BYTES_PER_OBJECT));
+		assertFalse(policy.intervalDue(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void nativeBytesAreEstimatedPerPendingObject() {
+		CleanupPolicy policy = CleanupPolicy.everyNativeBytes(1024);
+		assertEquals(CleanupPolicy.DEFAULT_BYTES_PER_OBJECT, policy.estimatedBytesPerObject());
+		assertFalse(policy.nativeBytesDue(3));
+		assertTrue(policy.nativeBytesDue(4));
+
+		CleanupPolicy larger = policy.withNativeByteThreshold(1024, 1000);
+		assertFalse(larger.nativeBytesDue(1));
+		assertTrue(larger.nativeBytesDue(2));
+		assertFalse(larger.allocationsDue(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void intervalIsComparedInNanos() {
+		CleanupPolicy policy = CleanupPolicy.every(Duration.ofMillis(5));
+		assertFalse(policy.isManual());
+		assertFalse(policy.intervalDue(4_999_999));
+		assertTrue(policy.intervalDue(5_000_000));
+	}
+
+	@Test
+	public void triggersAreCombinedIndependently() {
+		CleanupPolicy policy = CleanupPolicy.everyAllocations(10).withInterval(Duration.ofSeconds(1));
+		assertEquals(10, policy.allocationThreshold());
+		assertEquals(Duration.ofSeconds(1), policy.interval());
+		assertTrue(policy.allocationsDue(10));
+		assertTrue(policy.intervalDue(1_000_000_000));
+		assertTrue(policy.withAllocationThreshold(0).withInterval(null).isManual());
+	}
+
+	@Test
+	public void rejectsInvalidThresholds() {
+		assertThrows(IllegalArgumentException.class, () -> CleanupPolicy.everyAllocations(-1));
+		assertThrows(IllegalArgumentException.class, () -> CleanupPolicy.everyNativeBytes(-1));
+		assertThrows(IllegalArgumentException.class, () -> CleanupPolicy.MANUAL.withNativeByteThreshold(1, -1));
+		assertThrows(IllegalArgumentException.class, () -> CleanupPolicy.every(Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> CleanupPolicy.every(Duration.ofMillis(-1)));
+	}
+}
@@ -0,0 +1,131 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentFixedIndexListTest {
+
+	private static final int THREADS = 8;
+	private static final int OPERATIONS = 200_000;
+	private static final int MAX_HELD = 64;
+
+	@Test
+	public void reusesRemovedIndices() {
+		ConcurrentFixedIndexList<String> list = new ConcurrentFixedIndexList<>(1);
+		int a = list.put("a");
+		int b = list.put("b");
+		assertEquals(2, list.size());
+		assertEquals("a", list.remove(a));
+		assertNull(list.get(a));
+		assertEquals(1, list.size());
+		assertEquals(a, list.put("c"));
+		assertEquals("b", list.get(b));
+		assertEquals(2, list.size());
+	}
+
+	@Test
+	public void growsBeyondInitialCapacity() {
+		ConcurrentFixedIndexList<Integer> list = new ConcurrentFixedIndexList<>(1);
+		// More than one chunk.
+		int count = 100_000;
+		int[] indices = new int[count];
+		for (int i = 0; i < count; ++i) {
+			indices[i] = list.put(i);
+		}
+		for (int i = 0; i < count; ++i) {
+			assertEquals(Integer.valueOf(i), list.get(indices[i]));
+		}
+		assertEquals(count, list.size());
+	}
+
+	/**
+	 * <pre>
+	 * Every thread registers and removes its own elements in random order.
+	 * An index handed out twice while in use (e.g. by ABA on the stack of gaps) is detected as a foreign element
+	 * at that index or as a lost update.
+	 * </pre>
+	 */
+	@Test
+	public void concurrentRegisterRemoveStress() throws Exception {
+		ConcurrentFixedIndexList<Object> list = new ConcurrentFixedIndexList<>(16);
+		CyclicBarrier start = new CyclicBarrier(THREADS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Set<Integer>>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; ++t) {
+				final long seed = t;
+				futures.add(pool.submit(() -> {
+					Random random = new Random(seed);
+					List<Integer> heldIndices = new ArrayList<>();
+					List<Object> heldElements = new ArrayList<>();
+					start.await();
+					for (int op = 0; op < OPERATIONS; ++op) {
+						if (heldIndices.size() < MAX_HELD && (heldIndices.isEmpty() || random.nextBoolean())) {
+							Object element = new Object();
+							int index = list.acquireIndex();
+							assertNull(list.get(index), "Acquired an index which is in use.");
+							list.set(index, element);
+							heldIndices.add(index);
+							heldElements.add(element);
+						} else {
+							int k = random.nextInt(heldIndices.size());
+							int index = heldIndices.remove(k);
+							Object element = heldElements.remove(k);
+							assertSame(element, list.get(index), "Element was overwritten by another thread.");
+							assertSame(element, list.remove(index));
+						}
+					}
+					for (int k = 0; k < heldIndices.size(); ++k) {
+						assertSame(heldElements.get(k), list.get(heldIndices.get(k)));
+					}
+					return new HashSet<>(heldIndices);
+				}));
+			}
+
+			Set<Integer> allHeld = new HashSet<>();
+			int held = 0;
+			for (Future<Set<Integer>> future : futures) {
+				Set<Integer> indices = future.get(2, TimeUnit.MINUTES);
+				held += indices.size();
+				allHeld.addAll(indices);
+			}
+			assertEquals(held, allHeld.size(), "An index is held by two threads.");
+			assertEquals(held, list.size());
+			// Never more indices than elements held at the same time.
+			assertTrue(list.size() <= THREADS * MAX_HELD);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void primitiveListReusesRemovedIndices() {
+		PrimitiveFixedIndexList<String> list = new PrimitiveFixedIndexList<>(1);
+		List<Integer> indices = new ArrayList<>();
+		for (int i = 0; i < 100; ++i) {
+			indices.add(list.put("e" + i));
+		}
+		assertEquals(100, new HashSet<>(indices).size());
+		assertEquals("e42", list.remove(indices.get(42)));
+		assertEquals("e7", list.remove(indices.get(7)));
+		assertEquals(98, list.size());
+		assertEquals((int) indices.get(7), list.put("x"));
+		assertEquals((int) indices.get(42), list.put("y"));
+		assertEquals("e99", list.get(indices.get(99)));
+		assertEquals(100, list.size());
+	}
+}
@@ -0,0 +1,136 @@
+package de.dhbw.rahmlab.casadi.implUtil;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ManualCleanerTest {
+
+	@Test
+	public void confinedCleanerRejectsOtherThreads() throws Exception {
+		ManualCleaner cleaner = ManualCleaner.confined();
+		assertTrue(cleaner.isConfined());
+		// Not bound yet.
+		assertThrows(IllegalStateException.class, () -> cleaner.register(new Object(), () -> {
+		}));
+
+		cleaner.bindOwner(Thread.currentThread());
+		Object referent = new Object();
+		cleaner.register(referent, () -> {
+		});
+		assertEquals(1, cleaner.getPendingCount());
+
+		CompletableFuture<Throwable> other = CompletableFuture.supplyAsync(() -> {
+			try {
+				cleaner.register(new Object(), () -> {
+				});
+				return null;
+			} catch (IllegalStateException ex) {
+				return ex;
+			}
+		});
+		assertTrue(other.get() instanceof IllegalStateException);
+		assertEquals(1, cleaner.getRegisteredCount());
+	}
+
+	@Test
+	public void sharedCleanerCountsConcurrentRegistrations() throws Exception {
+		ManualCleaner cleaner = new ManualCleaner();
+		final int perThread = 10_000;
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+		for (int t = 0; t < futures.length; ++t) {
+			futures[t] = CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < perThread; ++i) {
+					cleaner.register(new Object(), () -> {
+					});
+				}
+			});
+		}
+		CompletableFuture.allOf(futures).get();
+		assertEquals(futures.length * perThread, cleaner.getRegisteredCount());
+	}
+
+	/**
+	 * Registrations of other threads than the owner must not delete the objects of the owner.
+	 */
+	@Test
+	public void policyCleansUpOnlyOnTheOwner() throws Exception {
+		ManualCleaner cleaner = new ManualCleaner();
+		List<Thread> deletingThreads = new CopyOnWriteArrayList<>();
+		Object referent = new Object();
+		WeakReference<Object> collected = new WeakReference<>(referent);
+		cleaner.register(referent, () -> deletingThreads.add(Thread.currentThread()));
+		referent = null;
+		for (int i = 0; i < 50 && collected.get() != null; ++i) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		cleaner.setPolicy(CleanupPolicy.everyAllocations(1));
+
+		CompletableFuture.runAsync(() -> {
+			for (int i = 0; i < 10; ++i) {
+				cleaner.register(new Object(), () -> {
+				});
+			}
+			assertEquals(0, cleaner.cleanupIfDue());
+		}).get();
+		assertTrue(deletingThreads.isEmpty());
+
+		for (int i = 0; i < 50 && deletingThreads.isEmpty(); ++i) {
+			cleaner.register(new Object(), () -> {
+			});
+			Thread.sleep(10);
+		}
+		assertEquals(List.of(Thread.currentThread()), deletingThreads);
+	}
+
+	/**
+	 * The objects of the owner are freed only by the owner, those of other threads by any thread.
+	 */
+	@Test
+	public void objectsOfOtherThreadsAreFreedByTheOwner() throws Exception {
+		ManualCleaner cleaner = new ManualCleaner();
+		List<String> deleted = new CopyOnWriteArrayList<>();
+		cleaner.register(new Object(), () -> deleted.add("owner"));
+		CompletableFuture.runAsync(() -> cleaner.register(new Object(), () -> deleted.add("other"))).get();
+		assertEquals(2, cleaner.getRegisteredCount());
+
+		for (int i = 0; i < 50 && deleted.isEmpty(); ++i) {
+			System.gc();
+			Thread.sleep(10);
+			CompletableFuture.runAsync(cleaner::cleanupUnreachable).get();
+		}
+		assertEquals(List.of("other"), deleted);
+
+		for (int i = 0; i < 50 && deleted.size() < 2; ++i) {
+			System.gc();
+			Thread.sleep(10);
+			cleaner.cleanupUnreachable();
+		}
+		assertEquals(List.of("other", "owner"), deleted);
+		assertEquals(0, cleaner.getPendingCount());
+	}
+
+	@Test
+	public void scopedObjectsAreFreedOnClose() {
+		ManualCleaner cleaner = ManualCleaner.confined();
+		cleaner.bindOwner(Thread.currentThread());
+		AtomicInteger deleted = new AtomicInteger();
+		try (CasADiScope scope = CasADiScope.open()) {
+			for (int i = 0; i < 3; ++i) {
+				cleaner.register(new Object(), deleted::incrementAndGet);
+			}
+			assertEquals(3, scope.size());
+		}
+		assertEquals(3, deleted.get());
+		assertEquals(3, cleaner.getFreedCount());
+		assertEquals(0, cleaner.getPendingCount());
+	}
+}
@@ -0,0 +1,28 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.implUtil.CleanupPolicy;
+import de.dhbw.rahmlab.casadi.implUtil.WrapUtil;
+import java.time.Duration;
+
+/**
+ * <pre>
+ * Common setup of benchmarks which create CasADi objects.
+ * Without cleanup, native memory of unreachable objects would accumulate during a benchmark.
+ * </pre>
+ */
+final class BenchmarkSupport {
+
+	static final CleanupPolicy CLEANUP_POLICY = CleanupPolicy.everyAllocations(10_000).withInterval(Duration.ofMillis(100));
+
+	private BenchmarkSupport() {
+	}
+
+	static void enableAutomaticCleanup() {
+		WrapUtil.MANUAL_CLEANER.setPolicy(CLEANUP_POLICY);
+	}
+
+	static void cleanup() {
+		System.gc();
+		WrapUtil.MANUAL_CLEANER.cleanupUnreachable();
+	}
+}
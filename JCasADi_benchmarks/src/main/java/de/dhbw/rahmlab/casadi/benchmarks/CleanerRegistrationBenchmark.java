@@ -0,0 +1,60 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.implUtil.ManualCleaner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <pre>
+ * Registration with the shared cleaner (WrapUtil.MANUAL_CLEANER), including the phantom reference, the registry
+ * and the counters. Every operation registers a new object and frees the objects collected in the meantime.
+ * The owner of the shared cleaner registers in a PrimitiveFixedIndexList, other threads in a ConcurrentFixedIndexList.
+ * Does not need the CasADi natives.
+ *
+ * java -jar JCasADi_benchmarks/target/benchmarks.jar CleanerRegistrationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CleanerRegistrationBenchmark {
+
+	private static final Runnable NOOP = () -> {
+	};
+
+	@State(Scope.Benchmark)
+	public static class Shared {
+
+		public final ManualCleaner cleaner = new ManualCleaner();
+	}
+
+	/**
+	 * A cleaner used by a single thread, as the shared cleaner of most programs.
+	 */
+	@Benchmark
+	public int sharedOnOwner(Shared s) {
+		s.cleaner.register(new Object(), NOOP);
+		return s.cleaner.cleanupUnreachable();
+	}
+
+	/**
+	 * The first thread becomes the owner, the other three register concurrently.
+	 */
+	@Benchmark
+	@Threads(4)
+	public int shared4Threads(Shared s) {
+		s.cleaner.register(new Object(), NOOP);
+		return s.cleaner.cleanupUnreachable();
+	}
+}
@@ -0,0 +1,69 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.implUtil.CasADiScope;
+import de.dhbw.rahmlab.casadi.implUtil.CleanupPolicy;
+import de.dhbw.rahmlab.casadi.implUtil.WrapUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <pre>
+ * Throughput of creating and deleting proxy objects, one operation being one temporary DM.
+ * - cleanupUnreachable: the temporaries become unreachable and are deleted by the ManualCleaner after a GC.
+ * - scope: the temporaries are deleted deterministically when the CasADiScope is closed.
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CleanupBenchmark {
+
+	private static final int TEMPORARIES = 1_000;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		WrapUtil.MANUAL_CLEANER.setPolicy(CleanupPolicy.MANUAL);
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanup() {
+		BenchmarkSupport.cleanup();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TEMPORARIES)
+	public void cleanupUnreachable(Blackhole blackhole) {
+		for (int i = 0; i < TEMPORARIES; ++i) {
+			blackhole.consume(new DMWrapper(i));
+		}
+		System.gc();
+		WrapUtil.MANUAL_CLEANER.cleanupUnreachable();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TEMPORARIES)
+	public void scope(Blackhole blackhole) {
+		try (CasADiScope scope = CasADiScope.open()) {
+			for (int i = 0; i < TEMPORARIES; ++i) {
+				blackhole.consume(new DMWrapper(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dbl.DoubleVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <pre>
+ * Construction of DMWrapper from Java arrays, reading the nonzeros back and arithmetic with Number operands.
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DMWrapperBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	public int size;
+
+	private double[] values;
+	private double[] target;
+	private DMWrapper dm;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.enableAutomaticCleanup();
+		this.values = ThreadLocalRandom.current().doubles(this.size).toArray();
+		this.target = new double[this.size];
+		this.dm = new DMWrapper(this.values);
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanup() {
+		BenchmarkSupport.cleanup();
+	}
+
+	@Benchmark
+	public DMWrapper constructFromArray() {
+		return new DMWrapper(this.values);
+	}
+
+	@Benchmark
+	public DMWrapper constructViaDoubleVector() {
+		return new DMWrapper(new DoubleVector(this.values));
+	}
+
+	@Benchmark
+	public double[] readNonzerosBoxed() {
+		DoubleVector nonzeros = this.dm.nonzeros();
+		for (int i = 0; i < this.target.length; ++i) {
+			this.target[i] = nonzeros.get(i);
+		}
+		return this.target;
+	}
+
+	@Benchmark
+	public double[] readNonzerosBulk() {
+		this.dm.nonzerosInto(this.target, 0);
+		return this.target;
+	}
+
+	@Benchmark
+	public DMWrapper addNumber() {
+		return this.dm.add(1.5);
+	}
+
+	@Benchmark
+	public DMWrapper multiplyNumber() {
+		return this.dm.multiply(2.5);
+	}
+}
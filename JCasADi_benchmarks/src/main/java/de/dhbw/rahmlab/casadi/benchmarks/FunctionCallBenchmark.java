@@ -0,0 +1,105 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dm.DMWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionEvaluator;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.function.FunctionWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.sx.SXVector;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.sx.SXWrapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <pre>
+ * Calls of a small function f(x, y) = [tanh((x + 2) * y^2 / 25 - 0.5); sin(x) - 0.5 * y + 1]
+ * (course exercise 1.1) with numeric and symbolic arguments.
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionCallBenchmark {
+
+	private FunctionWrapper mxFunction;
+	private FunctionWrapper sxFunction;
+
+	private DMVector dmArgs;
+	private SXVector sxArgs;
+	private MXVector mxArgs;
+
+	private FunctionEvaluator evaluator;
+	private double[][] in;
+	private double[][] out;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.enableAutomaticCleanup();
+
+		MXWrapper x = MXWrapper.sym("x");
+		MXWrapper y = MXWrapper.sym("y");
+		MXWrapper g1 = x.add(2).multiply(y.sq().divide(25)).subtract(0.5).tanh();
+		MXWrapper g2 = x.sin().subtract(y.multiply(0.5)).add(1);
+		this.mxFunction = new FunctionWrapper("f", new MXVector(x, y), new MXVector(g1, g2));
+		this.sxFunction = this.mxFunction.expand();
+
+		this.dmArgs = new DMVector(new DMWrapper(-0.8), new DMWrapper(2.0));
+		this.sxArgs = new SXVector(SXWrapper.sym("a"), SXWrapper.sym("b"));
+		this.mxArgs = new MXVector(MXWrapper.sym("a"), MXWrapper.sym("b"));
+
+		this.evaluator = this.mxFunction.createEvaluator();
+		this.in = new double[][]{{-0.8}, {2.0}};
+		this.out = this.evaluator.allocateOutputs();
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanup() {
+		BenchmarkSupport.cleanup();
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		this.evaluator.close();
+	}
+
+	@Benchmark
+	public DMVector callMxFunctionOnDM() {
+		return this.mxFunction.call(this.dmArgs);
+	}
+
+	@Benchmark
+	public DMVector callSxFunctionOnDM() {
+		return this.sxFunction.call(this.dmArgs);
+	}
+
+	@Benchmark
+	public SXVector callOnSX() {
+		return this.sxFunction.call(this.sxArgs);
+	}
+
+	@Benchmark
+	public MXVector callOnMX() {
+		return this.mxFunction.call(this.mxArgs);
+	}
+
+	@Benchmark
+	public double[][] evaluator() {
+		this.evaluator.eval(this.in, this.out);
+		return this.out;
+	}
+}
@@ -0,0 +1,125 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.api.core.problem.NLPProblem;
+import de.dhbw.rahmlab.casadi.api.core.problem.NLPResult;
+import de.dhbw.rahmlab.casadi.api.core.solver.CasADiSolver;
+import de.dhbw.rahmlab.casadi.api.core.utils.CasADiMathUtils;
+import de.dhbw.rahmlab.casadi.api.core.utils.ConcatenationUtils;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.KeyValue;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.generictype.CasADiGenericWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <pre>
+ * End-to-end solves with IPOPT of
+ * - the Rosenbrock problem min (1 - x)^2 + 100 (y - x^2)^2 and
+ * - the hanging chain of the course (25 masses, both ends fixed).
+ * "resolve" solves an already built problem again, "buildAndSolve" includes the construction of the problem.
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NLPSolveBenchmark {
+
+	private static final int CHAIN_MASSES = 25;
+
+	private NLPProblem rosenbrock;
+	private NLPProblem hangingChain;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.enableAutomaticCleanup();
+		this.rosenbrock = rosenbrock();
+		this.hangingChain = hangingChain();
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanup() {
+		BenchmarkSupport.cleanup();
+	}
+
+	private static void setSilentIpopt(NLPProblem problem) {
+		Dictionary pluginOptions = Dictionary.of(new KeyValue("print_time", new CasADiGenericWrapper(false)));
+		Dictionary solverOptions = Dictionary.of(
+			new KeyValue("print_level", new CasADiGenericWrapper(0)),
+			new KeyValue("sb", new CasADiGenericWrapper("yes")));
+		problem.setSolver(CasADiSolver.IPOPT, pluginOptions, solverOptions);
+	}
+
+	private static NLPProblem rosenbrock() {
+		NLPProblem problem = new NLPProblem();
+		MXWrapper x = problem.addVariable();
+		MXWrapper y = problem.addVariable();
+		problem.minimize(new MXWrapper(1).subtract(x).sq().add(y.subtract(x.sq()).sq().multiply(100)));
+		setSilentIpopt(problem);
+		problem.setInitialDecisionVariable(x, -1.5);
+		problem.setInitialDecisionVariable(y, 2.0);
+		return problem;
+	}
+
+	/**
+	 * <pre>
+	 * Model of course/fristBlock/NonlinearProgrammingWithAPI.test4() with the potential energy g * m * sum(y).
+	 * </pre>
+	 */
+	private static NLPProblem hangingChain() {
+		int N = CHAIN_MASSES;
+		double m = 40 / (double) N;
+		double D = 70 * N;
+		double g = 9.81;
+		double L = 5 / (double) N;
+
+		NLPProblem problem = new NLPProblem();
+		MXWrapper x = problem.addVariable(N);
+		MXWrapper y = problem.addVariable(N);
+
+		MXWrapper V = x.diff().sq().add(y.diff().sq()).sqrt().subtract(L).sq().sum1().multiply(0.5 * D);
+		V = V.add(y.sum1().multiply(g * m));
+		problem.minimize(V);
+
+		problem.addConstraints(ConcatenationUtils.vertcat(x.at(0), y.at(0)).eq(ConcatenationUtils.vertcat(new MXWrapper(-2), new MXWrapper(0))));
+		problem.addConstraints(ConcatenationUtils.vertcat(x.at(-1), y.at(-1)).eq(ConcatenationUtils.vertcat(new MXWrapper(2), new MXWrapper(0))));
+
+		setSilentIpopt(problem);
+		problem.setInitialDecisionVariable(x, CasADiMathUtils.linspace(-2, 2, N));
+		return problem;
+	}
+
+	@Benchmark
+	public NLPResult rosenbrockResolve() {
+		return this.rosenbrock.solve();
+	}
+
+	@Benchmark
+	public NLPResult rosenbrockBuildAndSolve() {
+		return rosenbrock().solve();
+	}
+
+	@Benchmark
+	public NLPResult hangingChainResolve() {
+		return this.hangingChain.solve();
+	}
+
+	@Benchmark
+	public NLPResult hangingChainBuildAndSolve() {
+		return hangingChain().solve();
+	}
+}
@@ -0,0 +1,69 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.api.core.constraints.ExpressionParser;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.Dictionary;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.dict.KeyValue;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.generictype.CasADiGenericWrapper;
+import de.dhbw.rahmlab.casadi.api.core.wrapper.mx.MXWrapper;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <pre>
+ * Parsing of expressions with ExpressionParser and iteration over the entries of a Dictionary.
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+	private static final String EXPRESSION = "x*y + 2*x^2 - (y - 3)/(x + 1)";
+
+	private Dictionary options;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkSupport.enableAutomaticCleanup();
+		this.options = Dictionary.of(
+			new KeyValue("print_time", new CasADiGenericWrapper(false)),
+			new KeyValue("expand", new CasADiGenericWrapper(true)),
+			new KeyValue("max_iter", new CasADiGenericWrapper(1000)),
+			new KeyValue("tol", new CasADiGenericWrapper(1e-8)),
+			new KeyValue("linear_solver", new CasADiGenericWrapper("mumps")));
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanup() {
+		BenchmarkSupport.cleanup();
+	}
+
+	@Benchmark
+	public MXWrapper parseExpression() {
+		return ExpressionParser.parse(EXPRESSION);
+	}
+
+	@Benchmark
+	public void dictionaryEntrySet(Blackhole blackhole) {
+		for (Map.Entry<String, CasADiGenericWrapper> entry : this.options.entrySet()) {
+			blackhole.consume(entry.getKey());
+			blackhole.consume(entry.getValue());
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package de.dhbw.rahmlab.casadi.benchmarks;
+
+import de.dhbw.rahmlab.casadi.implUtil.ConcurrentFixedIndexList;
+import de.dhbw.rahmlab.casadi.implUtil.FixedIndexList;
+import de.dhbw.rahmlab.casadi.implUtil.PrimitiveFixedIndexList;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <pre>
+ * Registration of proxy objects for deletion, as done by CleaneablePhantomReference for every native allocation.
+ * Compares the former registry (FixedIndexList with boxed gaps and a capturing builder lambda)
+ * with ConcurrentFixedIndexList (shared cleaners) and PrimitiveFixedIndexList (cleaners confined to one thread).
+ * Every operation registers a new reference and removes the oldest one of a fixed number of live references.
+ * Does not need the CasADi natives.
+ *
+ * Run with allocation profiling:
+ * java -jar JCasADi_benchmarks/target/benchmarks.jar RefRegistryBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefRegistryBenchmark {
+
+	private static final class Ref extends PhantomReference<Object> {
+
+		private final Runnable cleanupAction;
+		private final int index;
+
+		private Ref(Object referent, ReferenceQueue<Object> q, Runnable cleanupAction, int index) {
+			super(referent, q);
+			this.cleanupAction = cleanupAction;
+			this.index = index;
+		}
+	}
+
+	private static final Runnable NOOP = () -> {
+	};
+
+	@State(Scope.Benchmark)
+	public static class Registries {
+
+		@Param({"1024"})
+		public int initialCapacity;
+
+		public FixedIndexList<Ref> legacy;
+		public ConcurrentFixedIndexList<Ref> concurrent;
+		public PrimitiveFixedIndexList<Ref> primitive;
+		public final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.legacy = new FixedIndexList<>(this.initialCapacity);
+			this.concurrent = new ConcurrentFixedIndexList<>(this.initialCapacity);
+			this.primitive = new PrimitiveFixedIndexList<>(this.initialCapacity);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class LiveRefs {
+
+		@Param({"256"})
+		public int live;
+
+		public int[] indices;
+		public int next;
+		public final Object referent = new Object();
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			this.indices = new int[this.live];
+			Arrays.fill(this.indices, -1);
+			this.next = 0;
+		}
+
+		/**
+		 * @return index to be removed or -1.
+		 */
+		public int swap(int index) {
+			int old = this.indices[this.next];
+			this.indices[this.next] = index;
+			this.next = (this.next + 1) % this.indices.length;
+			return old;
+		}
+	}
+
+	private static int registerLegacy(Registries r, Object referent, Runnable cleanupAction) {
+		// Former CleaneablePhantomReference.createRef: capturing lambda, boxed index.
+		return r.legacy.put((Integer index) -> {
+			return new Ref(referent, r.queue, cleanupAction, index);
+		});
+	}
+
+	private static int registerConcurrent(Registries r, Object referent, Runnable cleanupAction) {
+		final int index = r.concurrent.acquireIndex();
+		r.concurrent.set(index, new Ref(referent, r.queue, cleanupAction, index));
+		return index;
+	}
+
+	private static int registerPrimitive(Registries r, Object referent, Runnable cleanupAction) {
+		final int index = r.primitive.acquireIndex();
+		r.primitive.set(index, new Ref(referent, r.queue, cleanupAction, index));
+		return index;
+	}
+
+	@Benchmark
+	public Object legacy(Registries r, LiveRefs l) {
+		int old = l.swap(registerLegacy(r, l.referent, NOOP));
+		return old < 0 ? null : r.legacy.remove(old);
+	}
+
+	@Benchmark
+	public Object concurrent(Registries r, LiveRefs l) {
+		int old = l.swap(registerConcurrent(r, l.referent, NOOP));
+		return old < 0 ? null : r.concurrent.remove(old);
+	}
+
+	/**
+	 * Registry of a cleaner confined to one thread, e.g. a thread of a CasADiExecutor.
+	 */
+	@Benchmark
+	public Object primitive(Registries r, LiveRefs l) {
+		int old = l.swap(registerPrimitive(r, l.referent, NOOP));
+		return old < 0 ? null : r.primitive.remove(old);
+	}
+
+	/**
+	 * The former registry is not thread-safe. Hence the fair multi-threaded comparison needs a lock.
+	 */
+	@Benchmark
+	@Threads(4)
+	public Object legacySynchronized4Threads(Registries r, LiveRefs l) {
+		synchronized (r.legacy) {
+			int old = l.swap(registerLegacy(r, l.referent, NOOP));
+			return old < 0 ? null : r.legacy.remove(old);
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object concurrent4Threads(Registries r, LiveRefs l) {
+		int old = l.swap(registerConcurrent(r, l.referent, NOOP));
+		return old < 0 ? null : r.concurrent.remove(old);
+	}
+}
@@ -116,3 +116,18 @@ SWIG_JAVABODY_PROXY_OWN(public, public, SWIGTYPE)
 %typemap(javadestruct_derived, methodname="delete", methodmodifiers="private static", parameters="long swigCPtr") SWIGTYPE {
   $jnicall;
 }
+
+// Directors.
+// The default typemaps use the swigCMemOwn flag and delete(), which do not exist due to SWIG_JAVABODY_PROXY_OWN.
+// The deletion is registered with REGISTER_DELETION. The C++ director only holds a weak global reference to its
+// Java object. Hence, the Java object must be kept reachable as long as C++ may call it (e.g. by the NLPProblem
+// a callback is attached to). Changing the ownership would create a cycle which is never cleaned up, so the methods
+// for it are not generated.
+%typemap(directordisconnect, methodname="swigDirectorDisconnect") SWIGTYPE %{
+  protected void $methodname() {
+  }
+%}
+
+%typemap(directorowner_release) SWIGTYPE ""
+
+%typemap(directorowner_take) SWIGTYPE ""
@@ -1,6 +1,6 @@
-%module core__;
-// To use directors, typemaps for them must be defined in _common.i to properly handle deletion.
-// %module(directors="1") core__;
+// Typemaps for directors are defined in _common.i to properly handle deletion.
+// Directors are used by jcasadi::IterationHandler.
+%module(directors="1") core__;
 
 // Own generic .i files
 %include "_common.i"
@@ -332,6 +332,119 @@ typedef casadi::Matrix<casadi::SXElem> SX;
 
 //// Stop: Function
 
+//// Start: Bulk transfer between Java arrays and C++ containers. Avoids one JNI call and boxing per element.
+
+%typemap(in, numinputs=0) JNIEnv *jenv "$1 = jenv;"
+%typemap(jstype) jobject doubleBuffer "java.nio.DoubleBuffer"
+%typemap(javain) jobject doubleBuffer "$javainput"
+%typemap(jstype) jobject colindBuffer "java.nio.LongBuffer"
+%typemap(javain) jobject colindBuffer "$javainput"
+%typemap(jstype) jobject rowBuffer "java.nio.LongBuffer"
+%typemap(javain) jobject rowBuffer "$javainput"
+%{
+	static void check_array_range(casadi_int offset, casadi_int count, jlong length) {
+		if (offset < 0 || count < 0 || offset + count > length) {
+			throw std::out_of_range("Range [" + std::to_string(offset) + ", " + std::to_string(offset + count) + ") out of bounds for length " + std::to_string(length) + ".");
+		}
+	}
+
+	static double* direct_double_buffer_address(JNIEnv *jenv, jobject doubleBuffer) {
+		double* address = static_cast<double*>(jenv->GetDirectBufferAddress(doubleBuffer));
+		if (address == nullptr) {
+			throw std::invalid_argument("The buffer is not direct.");
+		}
+		return address;
+	}
+
+	// The buffer must be direct, in native byte order and hold at least count elements.
+	static casadi_int* direct_long_buffer_address(JNIEnv *jenv, jobject longBuffer, casadi_int count) {
+		static_assert(sizeof(casadi_int) == sizeof(jlong), "casadi_int must be 64 bit.");
+		casadi_int* address = static_cast<casadi_int*>(jenv->GetDirectBufferAddress(longBuffer));
+		if (address == nullptr) {
+			throw std::invalid_argument("The buffer is not direct.");
+		}
+		check_array_range(0, count, jenv->GetDirectBufferCapacity(longBuffer));
+		return address;
+	}
+%}
+
+%extend std::vector<double> {
+	double get_value(casadi_int index) const {
+		return $self->at(index);
+	}
+	// Copies all elements into dst, starting at dst[offset].
+	void get_array(JNIEnv *jenv, jdoubleArray dst, casadi_int offset) const {
+		check_array_range(offset, $self->size(), jenv->GetArrayLength(dst));
+		jenv->SetDoubleArrayRegion(dst, static_cast<jsize>(offset), static_cast<jsize>($self->size()), $self->data());
+	}
+	// Replaces all elements with src[offset] to src[offset + count - 1].
+	void assign_array(JNIEnv *jenv, jdoubleArray src, casadi_int offset, casadi_int count) {
+		check_array_range(offset, count, jenv->GetArrayLength(src));
+		$self->resize(count);
+		jenv->GetDoubleArrayRegion(src, static_cast<jsize>(offset), static_cast<jsize>(count), $self->data());
+	}
+}
+
+%extend std::vector<casadi_int> {
+	casadi_int get_value(casadi_int index) const {
+		return $self->at(index);
+	}
+	void get_array(JNIEnv *jenv, jlongArray dst, casadi_int offset) const {
+		static_assert(sizeof(casadi_int) == sizeof(jlong), "casadi_int must be 64 bit.");
+		check_array_range(offset, $self->size(), jenv->GetArrayLength(dst));
+		jenv->SetLongArrayRegion(dst, static_cast<jsize>(offset), static_cast<jsize>($self->size()), reinterpret_cast<const jlong*>($self->data()));
+	}
+	void assign_array(JNIEnv *jenv, jlongArray src, casadi_int offset, casadi_int count) {
+		check_array_range(offset, count, jenv->GetArrayLength(src));
+		$self->resize(count);
+		jenv->GetLongArrayRegion(src, static_cast<jsize>(offset), static_cast<jsize>(count), reinterpret_cast<jlong*>($self->data()));
+	}
+}
+
+// std::vector<bool> is bit-packed. Hence, an intermediate buffer is needed.
+%extend std::vector<bool> {
+	bool get_value(casadi_int index) const {
+		return $self->at(index);
+	}
+	void get_array(JNIEnv *jenv, jbooleanArray dst, casadi_int offset) const {
+		check_array_range(offset, $self->size(), jenv->GetArrayLength(dst));
+		std::vector<jboolean> buffer($self->begin(), $self->end());
+		jenv->SetBooleanArrayRegion(dst, static_cast<jsize>(offset), static_cast<jsize>(buffer.size()), buffer.data());
+	}
+	void assign_array(JNIEnv *jenv, jbooleanArray src, casadi_int offset, casadi_int count) {
+		check_array_range(offset, count, jenv->GetArrayLength(src));
+		std::vector<jboolean> buffer(count);
+		jenv->GetBooleanArrayRegion(src, static_cast<jsize>(offset), static_cast<jsize>(count), buffer.data());
+		$self->assign(buffer.begin(), buffer.end());
+	}
+}
+
+%extend std::vector<std::vector<double>> {
+	// Total number of elements of all inner vectors.
+	casadi_int total_size() const {
+		casadi_int total = 0;
+		for (const std::vector<double>& inner : *$self) {
+			total += inner.size();
+		}
+		return total;
+	}
+	// Copies all elements of all inner vectors consecutively into dst, starting at dst[offset].
+	void get_array(JNIEnv *jenv, jdoubleArray dst, casadi_int offset) const {
+		casadi_int total = 0;
+		for (const std::vector<double>& inner : *$self) {
+			total += inner.size();
+		}
+		check_array_range(offset, total, jenv->GetArrayLength(dst));
+		jsize position = static_cast<jsize>(offset);
+		for (const std::vector<double>& inner : *$self) {
+			jenv->SetDoubleArrayRegion(dst, position, static_cast<jsize>(inner.size()), inner.data());
+			position += static_cast<jsize>(inner.size());
+		}
+	}
+}
+
+//// Stop: Bulk transfer between Java arrays and C++ containers.
+
 //// Start: std::vector<double>
 
 %template(StdVectorDouble) std::vector<double>;
@@ -367,6 +480,53 @@ typedef casadi::Matrix<double> DM;
 // Needs to be after %template(DM)
 %extendAt("Dm", casadi::Matrix<double>)
 
+// Start: Bulk transfer of nonzeros. Avoids element-wise access via std::vector<double>.
+// Typemaps and helpers are defined before std::vector<double>.
+%extend casadi::Matrix<double> {
+	// Copies all nonzeros into dst, starting at dst[offset].
+	void get_nonzeros_array(JNIEnv *jenv, jdoubleArray dst, casadi_int offset) const {
+		const std::vector<double>& nz = $self->nonzeros();
+		check_array_range(offset, nz.size(), jenv->GetArrayLength(dst));
+		jenv->SetDoubleArrayRegion(dst, static_cast<jsize>(offset), static_cast<jsize>(nz.size()), nz.data());
+	}
+	// Overwrites all nonzeros with src, starting at src[offset]. The sparsity stays unchanged.
+	void set_nonzeros_array(JNIEnv *jenv, jdoubleArray src, casadi_int offset) {
+		std::vector<double>& nz = $self->nonzeros();
+		check_array_range(offset, nz.size(), jenv->GetArrayLength(src));
+		jenv->GetDoubleArrayRegion(src, static_cast<jsize>(offset), static_cast<jsize>(nz.size()), nz.data());
+	}
+	// The buffer must be direct and in native byte order. offset is absolute.
+	void get_nonzeros_buffer(JNIEnv *jenv, jobject doubleBuffer, casadi_int offset) const {
+		const std::vector<double>& nz = $self->nonzeros();
+		double* address = direct_double_buffer_address(jenv, doubleBuffer);
+		check_array_range(offset, nz.size(), jenv->GetDirectBufferCapacity(doubleBuffer));
+		std::copy(nz.begin(), nz.end(), address + offset);
+	}
+	// The buffer must be direct and in native byte order. offset is absolute.
+	void set_nonzeros_buffer(JNIEnv *jenv, jobject doubleBuffer, casadi_int offset) {
+		std::vector<double>& nz = $self->nonzeros();
+		const double* address = direct_double_buffer_address(jenv, doubleBuffer);
+		check_array_range(offset, nz.size(), jenv->GetDirectBufferCapacity(doubleBuffer));
+		std::copy(address + offset, address + offset + nz.size(), nz.begin());
+	}
+	// Direct ByteBuffer on the nonzeros. Valid as long as this DM is alive and its sparsity unchanged.
+	jobject nonzeros_view(JNIEnv *jenv) {
+		std::vector<double>& nz = $self->nonzeros();
+		if (nz.empty()) {
+			throw std::invalid_argument("A view on zero nonzeros is not possible.");
+		}
+		return jenv->NewDirectByteBuffer(nz.data(), static_cast<jlong>(nz.size() * sizeof(double)));
+	}
+	// Dense column vector of src[offset] to src[offset + count - 1].
+	static casadi::Matrix<double> from_array(JNIEnv *jenv, jdoubleArray src, casadi_int offset, casadi_int count) {
+		check_array_range(offset, count, jenv->GetArrayLength(src));
+		casadi::Matrix<double> dm = casadi::Matrix<double>::zeros(count, 1);
+		jenv->GetDoubleArrayRegion(src, static_cast<jsize>(offset), static_cast<jsize>(count), dm.nonzeros().data());
+		return dm;
+	}
+}
+// Stop: Bulk transfer of nonzeros.
+
 %import "casadi/core/dm_fwd.hpp"
 typedef casadi::DMDict DMDict;
 
@@ -392,6 +552,12 @@ class casadi::MX; // Forward declaration needed for Template instantiation in SW
 #define SWIG
 
 %extendAt("Mx", casadi::MX)
+%extend casadi::MX {
+	// Identifies the expression node. Equal for copies of the same MX. Used as cache key.
+	casadi_int node_hash() const {
+		return $self->__hash__();
+	}
+}
 %extend casadi::SubMatrix<casadi::MX, int, int> {
 %typemap(jstype) casadi::GenericMatrix< casadi::Matrix< casadi::SXElem > > "$javaclassname"
 %proxycode %{
@@ -499,8 +665,333 @@ class casadi::Sparsity;
 %nodefaultctor casadi::DeserializerBase;
 %include <casadi/core/serializer.hpp>
 
-%feature("director") casadi::OptiCallback;
+// No director: OptiCallback cannot stop the solve. The iteration callback of NLPProblem is a jcasadi::IterationHandler.
 %include <casadi/core/optistack.hpp>
 
+%extend casadi::Opti {
+	// Solution at the latest iterate, also if the solve failed or was stopped.
+	casadi::OptiSol latest_solution() const {
+		return casadi::OptiSol(*$self);
+	}
+}
+
+//// Start: Own helper classes. Namespace jcasadi results in package impl.jcasadi.
+
+// Copies would release the same memory object twice.
+%feature("copyctor", "0") jcasadi::FunctionEvaluatorNative;
+
+// The stop of a solve is returned by IterationHandler.proceed(). Java exceptions are rethrown in C++ and are errors.
+%feature("director") jcasadi::IterationHandler;
+%feature("director:except") jcasadi::IterationHandler %{
+	jthrowable $error = jenv->ExceptionOccurred();
+	if ($error) {
+		Swig::DirectorException::raise(jenv, $error);
+	}
+%}
+%feature("copyctor", "0") jcasadi::IterationStop;
+
+%ignore jcasadi::stats_number;
+
+%inline %{
+namespace jcasadi {
+
+	// Repeated numeric evaluation of a casadi::Function on Java double arrays.
+	// The memory object and the work vectors are allocated once at construction.
+	// Not thread-safe. Use one instance per thread.
+	class FunctionEvaluatorNative {
+	public:
+		FunctionEvaluatorNative(const casadi::Function& f) : f_(f) {
+			size_t sz_arg, sz_res, sz_iw, sz_w;
+			f_.sz_work(sz_arg, sz_res, sz_iw, sz_w);
+			arg_.resize(sz_arg, nullptr);
+			res_.resize(sz_res, nullptr);
+			iw_.resize(sz_iw);
+			w_.resize(sz_w);
+			for (casadi_int i = 0; i < f_.n_in(); ++i) {
+				nnz_in_.push_back(f_.nnz_in(i));
+			}
+			for (casadi_int i = 0; i < f_.n_out(); ++i) {
+				nnz_out_.push_back(f_.nnz_out(i));
+			}
+			rows_in_.resize(nnz_in_.size(), nullptr);
+			rows_out_.resize(nnz_out_.size(), nullptr);
+			mem_ = f_.checkout();
+		}
+
+		FunctionEvaluatorNative(const FunctionEvaluatorNative&) = delete;
+		FunctionEvaluatorNative& operator=(const FunctionEvaluatorNative&) = delete;
+
+		~FunctionEvaluatorNative() {
+			close();
+		}
+
+		casadi_int n_in() const {
+			return nnz_in_.size();
+		}
+
+		casadi_int n_out() const {
+			return nnz_out_.size();
+		}
+
+		casadi_int nnz_in(casadi_int i) const {
+			return nnz_in_.at(i);
+		}
+
+		casadi_int nnz_out(casadi_int i) const {
+			return nnz_out_.at(i);
+		}
+
+		// in[i] holds the nonzeros of input i. A null row is treated as zeros.
+		// out[i] receives the nonzeros of output i. A null row is not computed, if possible.
+		// Returns 0 on success. Row lengths must be checked by the caller.
+		int eval(JNIEnv *jenv, jobjectArray in, jobjectArray out) {
+			if (mem_ < 0) {
+				throw std::logic_error("The evaluator is closed.");
+			}
+
+			// Releases the critical regions in reverse order of acquisition and deletes the local references.
+			// Runs on every exit, also if the evaluation throws. Thus, the exception is raised in Java only after
+			// all critical regions are released. Outputs are copied back only after a successful evaluation.
+			struct CriticalRegions {
+				JNIEnv *jenv;
+				FunctionEvaluatorNative& self;
+				size_t collected_in = 0;
+				size_t collected_out = 0;
+				size_t pinned_in = 0;
+				size_t pinned_out = 0;
+				bool success = false;
+
+				CriticalRegions(JNIEnv *jenv, FunctionEvaluatorNative& self) : jenv(jenv), self(self) {
+				}
+
+				~CriticalRegions() {
+					for (size_t i = pinned_out; i-- > 0;) {
+						if (self.rows_out_[i] != nullptr) {
+							// Mode 0: Copy back if the JVM did not pin the array.
+							jenv->ReleasePrimitiveArrayCritical(self.rows_out_[i], self.res_[i], success ? 0 : JNI_ABORT);
+						}
+					}
+					for (size_t i = pinned_in; i-- > 0;) {
+						if (self.rows_in_[i] != nullptr) {
+							jenv->ReleasePrimitiveArrayCritical(self.rows_in_[i], const_cast<double*>(self.arg_[i]), JNI_ABORT);
+						}
+					}
+					for (size_t i = 0; i < collected_in; ++i) {
+						if (self.rows_in_[i] != nullptr) {
+							jenv->DeleteLocalRef(self.rows_in_[i]);
+						}
+					}
+					for (size_t i = 0; i < collected_out; ++i) {
+						if (self.rows_out_[i] != nullptr) {
+							jenv->DeleteLocalRef(self.rows_out_[i]);
+						}
+					}
+				}
+			} regions(jenv, *this);
+
+			// No other JNI functions are allowed within critical regions. Hence, collect the rows first.
+			for (size_t i = 0; i < rows_in_.size(); ++i, ++regions.collected_in) {
+				rows_in_[i] = static_cast<jdoubleArray>(jenv->GetObjectArrayElement(in, static_cast<jsize>(i)));
+			}
+			for (size_t i = 0; i < rows_out_.size(); ++i, ++regions.collected_out) {
+				rows_out_[i] = static_cast<jdoubleArray>(jenv->GetObjectArrayElement(out, static_cast<jsize>(i)));
+			}
+
+			for (size_t i = 0; i < rows_in_.size(); ++i) {
+				arg_[i] = nullptr;
+				if (rows_in_[i] != nullptr) {
+					arg_[i] = static_cast<const double*>(jenv->GetPrimitiveArrayCritical(rows_in_[i], nullptr));
+					if (arg_[i] == nullptr) {
+						throw std::bad_alloc();
+					}
+				}
+				++regions.pinned_in;
+			}
+			for (size_t i = 0; i < rows_out_.size(); ++i) {
+				res_[i] = nullptr;
+				if (rows_out_[i] != nullptr) {
+					res_[i] = static_cast<double*>(jenv->GetPrimitiveArrayCritical(rows_out_[i], nullptr));
+					if (res_[i] == nullptr) {
+						throw std::bad_alloc();
+					}
+				}
+				++regions.pinned_out;
+			}
+
+			int flag = f_(arg_.data(), res_.data(), iw_.data(), w_.data(), mem_);
+			regions.success = flag == 0;
+			return flag;
+		}
+
+		// Releases the memory object early. Idempotent.
+		void close() {
+			if (mem_ >= 0) {
+				f_.release(mem_);
+				mem_ = -1;
+			}
+		}
+
+	private:
+		casadi::Function f_;
+		int mem_;
+		std::vector<const double*> arg_;
+		std::vector<double*> res_;
+		std::vector<casadi_int> iw_;
+		std::vector<double> w_;
+		std::vector<casadi_int> nnz_in_;
+		std::vector<casadi_int> nnz_out_;
+		std::vector<jdoubleArray> rows_in_;
+		std::vector<jdoubleArray> rows_out_;
+	};
+
+	// Decides after every iteration of a solver whether the solve proceeds. Implemented in Java.
+	class IterationHandler {
+	public:
+		virtual ~IterationHandler() {}
+
+		// Returns false to stop the solve.
+		virtual bool proceed() = 0;
+	};
+
+	// Passed as option "iteration_callback" to nlpsol. Returns 1 to the solver if the handler returns false.
+	// The solver then stops regularly, e.g. IPOPT with User_Requested_Stop. An exception instead would be caught by
+	// the solver plugin and printed as a warning.
+	// Only the objective is an input, so the signature does not depend on the size of the problem.
+	// The handler must outlive this object, which must outlive the solver.
+	class IterationStop : public casadi::Callback {
+	public:
+		IterationStop(IterationHandler* handler) : handler_(handler) {
+			construct("iteration_stop");
+		}
+
+		casadi_int get_n_in() override {
+			return casadi::nlpsol_n_out();
+		}
+
+		casadi_int get_n_out() override {
+			return 1;
+		}
+
+		std::string get_name_in(casadi_int i) override {
+			return casadi::nlpsol_out(i);
+		}
+
+		std::string get_name_out(casadi_int i) override {
+			return "ret";
+		}
+
+		casadi::Sparsity get_sparsity_in(casadi_int i) override {
+			// Empty inputs are not checked against the outputs of the solver.
+			return (i == casadi::NLPSOL_F) ? casadi::Sparsity::dense(1, 1) : casadi::Sparsity(0, 0);
+		}
+
+		std::vector<casadi::DM> eval(const std::vector<casadi::DM>& arg) const override {
+			return {casadi::DM(handler_->proceed() ? 0 : 1)};
+		}
+
+	private:
+		IterationHandler* handler_;
+	};
+
+	// Writes the objective, the primal and the dual infeasibility of the latest iteration of the solver of opti
+	// into dst[0], dst[1] and dst[2]. NaN if not reported by the solver plugin.
+	// Intended to be called within an OptiCallback or an IterationHandler.
+	void latest_iteration(JNIEnv *jenv, casadi::Opti& opti, jdoubleArray dst) {
+		check_array_range(0, 3, jenv->GetArrayLength(dst));
+		jdouble values[3] = {NAN, NAN, NAN};
+		casadi::Dict stats = opti.advanced().casadi_solver().stats();
+		auto iterations = stats.find("iterations");
+		if (iterations != stats.end() && iterations->second.is_dict()) {
+			const casadi::Dict& series = iterations->second.as_dict();
+			const char* keys[3] = {"obj", "inf_pr", "inf_du"};
+			for (int i = 0; i < 3; ++i) {
+				auto entry = series.find(keys[i]);
+				if (entry != series.end() && entry->second.is_double_vector()) {
+					const std::vector<double>& values_i = entry->second.as_double_vector();
+					if (!values_i.empty()) {
+						values[i] = values_i.back();
+					}
+				}
+			}
+		}
+		jenv->SetDoubleArrayRegion(dst, 0, 3, values);
+	}
+
+	static double stats_number(const casadi::Dict& stats, const std::string& key) {
+		auto entry = stats.find(key);
+		if (entry == stats.end()) {
+			return NAN;
+		}
+		const casadi::GenericType& value = entry->second;
+		if (value.is_bool()) {
+			return value.as_bool() ? 1 : 0;
+		}
+		if (value.is_int() || value.is_double()) {
+			return value.to_double();
+		}
+		return NAN;
+	}
+
+	// Flattens the statistics of a solver in a single pass over the entries.
+	// dst receives success, iter_count, t_wall_total, t_proc_total and n_call_total, followed by n_call, t_wall and
+	// t_proc of each oracle. Missing values are NaN. dst must hold at least 5 + 3 * stats.size() elements.
+	// Returns the return_status followed by the names of the oracles, separated by '\n'.
+	std::string flatten_solve_stats(JNIEnv *jenv, const casadi::Dict& stats, jdoubleArray dst) {
+		check_array_range(0, 5 + 3 * stats.size(), jenv->GetArrayLength(dst));
+		std::vector<jdouble> values = {
+			stats_number(stats, "success"),
+			stats_number(stats, "iter_count"),
+			stats_number(stats, "t_wall_total"),
+			stats_number(stats, "t_proc_total"),
+			stats_number(stats, "n_call_total")
+		};
+		auto status = stats.find("return_status");
+		std::string names = (status != stats.end() && status->second.is_string()) ? status->second.as_string() : "";
+		const std::string prefix = "n_call_";
+		for (const auto& entry : stats) {
+			const std::string& key = entry.first;
+			if (key.compare(0, prefix.size(), prefix) != 0 || key == "n_call_total") {
+				continue;
+			}
+			const std::string oracle = key.substr(prefix.size());
+			values.push_back(stats_number(stats, key));
+			values.push_back(stats_number(stats, "t_wall_" + oracle));
+			values.push_back(stats_number(stats, "t_proc_" + oracle));
+			names += "\n" + oracle;
+		}
+		jenv->SetDoubleArrayRegion(dst, 0, static_cast<jsize>(values.size()), values.data());
+		return names;
+	}
+
+	// Copies the column offsets (size2() + 1 elements) and the row indices (nnz() elements) of sp into direct buffers
+	// in native byte order, e.g. slices of a memory-mapped file.
+	void sparsity_to_ccs(JNIEnv *jenv, const casadi::Sparsity& sp, jobject colindBuffer, jobject rowBuffer) {
+		casadi_int* colind = direct_long_buffer_address(jenv, colindBuffer, sp.size2() + 1);
+		casadi_int* row = direct_long_buffer_address(jenv, rowBuffer, sp.nnz());
+		std::copy(sp.colind(), sp.colind() + sp.size2() + 1, colind);
+		std::copy(sp.row(), sp.row() + sp.nnz(), row);
+	}
+
+	// Sparsity from column offsets and row indices in direct buffers in native byte order. Validated by casadi.
+	casadi::Sparsity sparsity_from_ccs(JNIEnv *jenv, casadi_int nrow, casadi_int ncol, jobject colindBuffer, jobject rowBuffer) {
+		const casadi_int* colind = direct_long_buffer_address(jenv, colindBuffer, ncol + 1);
+		const casadi_int nnz = colind[ncol];
+		const casadi_int* row = direct_long_buffer_address(jenv, rowBuffer, nnz);
+		return casadi::Sparsity(nrow, ncol, std::vector<casadi_int>(colind, colind + ncol + 1), std::vector<casadi_int>(row, row + nnz));
+	}
+
+	// DM with the sparsity sp and the nonzeros of a direct buffer in native byte order. Copies the nonzeros once.
+	casadi::Matrix<double> dm_from_ccs(JNIEnv *jenv, const casadi::Sparsity& sp, jobject doubleBuffer) {
+		const double* nz = direct_double_buffer_address(jenv, doubleBuffer);
+		check_array_range(0, sp.nnz(), jenv->GetDirectBufferCapacity(doubleBuffer));
+		casadi::Matrix<double> dm = casadi::Matrix<double>::zeros(sp);
+		std::copy(nz, nz + sp.nnz(), dm.nonzeros().begin());
+		return dm;
+	}
+}
+%}
+
+//// Stop: Own helper classes.
+
 //"Submodules"
 